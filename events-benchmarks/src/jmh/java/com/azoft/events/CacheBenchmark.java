@@ -0,0 +1,92 @@
+package com.azoft.events;
+
+import com.azoft.events.cache.BoundedMemoryCache;
+import com.azoft.events.cache.CacheProvider;
+import com.azoft.events.cache.DiskCache;
+import com.azoft.events.cache.MemoryCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache provider look up with and without cached result. Found result is sent to main thread like in async method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheBenchmark {
+
+    private static final int CACHE_EVENT = 3;
+    private static final int ENTRIES = 1000;
+
+    @Param({"memory", "bounded", "disk"})
+    String provider;
+
+    private CacheProvider cache;
+    private File cacheFile;
+    private Event hitEvent;
+    private Event missEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        MainThread.bind();
+        if ("memory".equals(provider)) {
+            cache = new MemoryCache();
+        } else if ("bounded".equals(provider)) {
+            cache = new BoundedMemoryCache(ENTRIES * 2, BoundedMemoryCache.NO_TIME_LIMIT, false);
+        } else {
+            cacheFile = File.createTempFile("events-benchmark", ".cache");
+            cache = new DiskCache(cacheFile, 16L * 1024L * 1024L, DiskCache.NO_TIME_LIMIT);
+        }
+
+        for (int i = 0; i < ENTRIES; i++) {
+            cache.saveToCache(newEvent(i), "result " + i);
+        }
+        hitEvent = newEvent(ENTRIES / 2);
+        missEvent = newEvent(-1);
+    }
+
+    @Setup(Level.Iteration)
+    public void bindMainThread() {
+        MainThread.bind();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        MainThread.drain();
+        if (null != cacheFile && !cacheFile.delete()) {
+            throw new IOException("Cannot delete " + cacheFile);
+        }
+    }
+
+    @Benchmark
+    public boolean hit() throws Exception {
+        final boolean isCacheUsed = cache.loadFromCache(hitEvent);
+        MainThread.drain();
+        return isCacheUsed;
+    }
+
+    @Benchmark
+    public boolean miss() throws Exception {
+        return cache.loadFromCache(missEvent);
+    }
+
+    private static Event newEvent(final int data) {
+        final Event event = new Event(CACHE_EVENT, new Object[]{data});
+        // cached result is sent as RESULT callback, so event should look like async method one
+        event.handlerType = EventHandler.Type.METHOD_ASYNC;
+        return event;
+    }
+}
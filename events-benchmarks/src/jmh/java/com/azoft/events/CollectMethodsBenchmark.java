@@ -0,0 +1,39 @@
+package com.azoft.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Method;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handler methods look up of the class that is registered for the first time. Handlers cache of
+ * {@link EventHandlerUtils#getMethodsFromClass(Class)} is skipped. JVM still caches class reflection data, so class loading
+ * is not measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollectMethodsBenchmark {
+
+    private Method collectMethods;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        collectMethods = EventHandlerUtils.class.getDeclaredMethod("collectMethods", Class.class, LinkedList.class);
+        collectMethods.setAccessible(true);
+    }
+
+    @Benchmark
+    public LinkedList<EventHandler> coldScan() throws Exception {
+        final LinkedList<EventHandler> handlers = new LinkedList<EventHandler>();
+        collectMethods.invoke(null, Receivers.Large.class, handlers);
+        return handlers;
+    }
+}
@@ -0,0 +1,65 @@
+package com.azoft.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post of one event and its delivery to all receivers in main thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DispatchBenchmark {
+
+    @Param({"1", "10", "100"})
+    int receivers;
+
+    @Param({"false", "true"})
+    boolean metrics;
+
+    private final List<Object> registered = new ArrayList<Object>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MainThread.bind();
+        Events.setLowLatencyDispatch(true);
+        Events.setMetrics(metrics ? new EventsMetrics() : null);
+        for (int i = 0; i < receivers; i++) {
+            final Object receiver = new Receivers.Generated();
+            Events.register(receiver);
+            registered.add(receiver);
+        }
+        MainThread.drain();
+    }
+
+    @Setup(Level.Iteration)
+    public void bindMainThread() {
+        MainThread.bind();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (final Object receiver : registered) {
+            Events.unregister(receiver);
+        }
+        MainThread.drain();
+    }
+
+    @Benchmark
+    public int postAndDispatch() {
+        Events.post(Receivers.EVENT);
+        return MainThread.drain();
+    }
+}
@@ -0,0 +1,45 @@
+package com.azoft.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handler method call by reflection and by generated invoker.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InvocationBenchmark {
+
+    private final Receivers.Generated generatedTarget = new Receivers.Generated();
+    private final Receivers.Reflective reflectiveTarget = new Receivers.Reflective();
+    private final Event event = new Event(Receivers.EVENT, new Object[0]);
+
+    private EventHandler generatedHandler;
+    private EventHandler reflectiveHandler;
+
+    @Setup
+    public void setUp() {
+        generatedHandler = EventHandlerUtils.getMethodsFromClass(Receivers.Generated.class).getFirst();
+        reflectiveHandler = EventHandlerUtils.getMethodsFromClass(Receivers.Reflective.class).getFirst();
+    }
+
+    @Benchmark
+    public int generated() {
+        generatedHandler.handle(generatedTarget, event, false);
+        return generatedTarget.count;
+    }
+
+    @Benchmark
+    public int reflective() {
+        reflectiveHandler.handle(reflectiveTarget, event, false);
+        return reflectiveTarget.count;
+    }
+}
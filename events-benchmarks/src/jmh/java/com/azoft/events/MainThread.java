@@ -0,0 +1,43 @@
+package com.azoft.events;
+
+import com.azoft.events.platform.EventLoop;
+import com.azoft.events.platform.JvmPlatform;
+import com.azoft.events.platform.Logger;
+
+/**
+ * Main thread of benchmarks: event loop which messages are handled in benchmark thread.
+ */
+final class MainThread {
+
+    private static final EventLoop MAIN_LOOP = new EventLoop();
+
+    static {
+        // nothing is written, so logging doesn't affect results
+        Events.setPlatform(new JvmPlatform(MAIN_LOOP, new Logger() {
+            @Override
+            public void d(final String tag, final String message) {
+            }
+
+            @Override
+            public void e(final String tag, final String message, final Throwable error) {
+            }
+        }));
+    }
+
+    private MainThread() {
+    }
+
+    /**
+     * Makes current benchmark thread the main one.
+     */
+    static void bind() {
+        MAIN_LOOP.runPending();
+    }
+
+    /**
+     * Handles all messages sent to main thread.
+     */
+    static int drain() {
+        return MAIN_LOOP.runPending();
+    }
+}
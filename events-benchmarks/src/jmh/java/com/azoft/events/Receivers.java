@@ -0,0 +1,106 @@
+package com.azoft.events;
+
+/**
+ * Receivers used by benchmarks. Methods with package access are called by invokers generated by events-compiler,
+ * private methods are called by reflection.
+ */
+public final class Receivers {
+
+    static final int EVENT = 1;
+    static final int SINGLE_EVENT = 2;
+
+    private Receivers() {
+    }
+
+    public static class Generated {
+
+        int count;
+
+        @Events.Receiver(EVENT)
+        void onEvent(final Event event) {
+            ++count;
+        }
+    }
+
+    public static class Reflective {
+
+        int count;
+
+        @Events.Receiver(EVENT)
+        private void onEvent(final Event event) {
+            ++count;
+        }
+    }
+
+    /**
+     * Keeps single events in progress, so new single events are compared with them.
+     */
+    public static class SingleEvents {
+
+        @Events.UiMethod(SINGLE_EVENT)
+        Object load(final Event event) {
+            event.postpone();
+            return null;
+        }
+    }
+
+    /**
+     * Receiver with many handler methods and a base class, for methods look up.
+     */
+    public static class Large extends Base {
+
+        @Events.Receiver(101)
+        void onEvent1(final Event event) {
+        }
+
+        @Events.Receiver(102)
+        void onEvent2(final Event event) {
+        }
+
+        @Events.Receiver({103, 104})
+        void onEvent3(final Event event) {
+        }
+
+        @Events.Receiver(keys = "large.event")
+        void onEvent4(final Event event) {
+        }
+
+        @Events.Callback(105)
+        void onCallback1(final EventCallback callback) {
+        }
+
+        @Events.Callback(106)
+        void onCallback2(final EventCallback callback) {
+        }
+
+        @Events.AsyncMethod(107)
+        Object load1(final Event event) {
+            return null;
+        }
+
+        @Events.UiMethod(108)
+        Object load2(final Event event) {
+            return null;
+        }
+
+        void notHandler1() {
+        }
+
+        void notHandler2(final Event event) {
+        }
+    }
+
+    public static class Base {
+
+        @Events.Receiver(109)
+        void onBaseEvent(final Event event) {
+        }
+
+        @Events.Callback(110)
+        private void onBaseCallback(final EventCallback callback) {
+        }
+
+        void notHandler3() {
+        }
+    }
+}
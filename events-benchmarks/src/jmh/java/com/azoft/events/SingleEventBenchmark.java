@@ -0,0 +1,57 @@
+package com.azoft.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post of single event that is skipped, because the same event is in progress, while many other single events of the same
+ * id are in progress too (like loading of each list item).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SingleEventBenchmark {
+
+    @Param({"10", "1000"})
+    int inProgress;
+
+    private final Receivers.SingleEvents receiver = new Receivers.SingleEvents();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MainThread.bind();
+        Events.setLowLatencyDispatch(true);
+        Events.register(receiver);
+        for (int i = 0; i < inProgress; i++) {
+            Events.create(Receivers.SINGLE_EVENT).data(i).single().post();
+        }
+        MainThread.drain();
+    }
+
+    @Setup(Level.Iteration)
+    public void bindMainThread() {
+        MainThread.bind();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Events.unregister(receiver);
+        MainThread.drain();
+    }
+
+    @Benchmark
+    public int postDuplicate() {
+        Events.create(Receivers.SINGLE_EVENT).data(inProgress / 2).single().post();
+        return MainThread.drain();
+    }
+}
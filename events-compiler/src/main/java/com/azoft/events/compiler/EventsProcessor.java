@@ -0,0 +1,230 @@
+package com.azoft.events.compiler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates {@code com.azoft.events.EventInvokers} implementation for every class with event handler methods, so this
+ * methods are called without reflection.
+ * <p/>
+ * If {@link #OPTION_INDEX} option is set, {@code com.azoft.events.EventsIndex} implementation with this name is generated
+ * too. It contains handler methods of all receiver classes in the module, so they are registered without annotations look up.
+ * <p/>
+ * Add this processor to the project that contains receiver classes:
+ * <pre>
+ * annotationProcessor project(':events-compiler')
+ * </pre>
+ */
+public final class EventsProcessor extends AbstractProcessor {
+
+    static final String EVENTS_PACKAGE = "com.azoft.events";
+
+    static final String RECEIVER = EVENTS_PACKAGE + ".Events.Receiver";
+    static final String ASYNC_METHOD = EVENTS_PACKAGE + ".Events.AsyncMethod";
+    static final String UI_METHOD = EVENTS_PACKAGE + ".Events.UiMethod";
+    static final String CALLBACK = EVENTS_PACKAGE + ".Events.Callback";
+
+    static final String OPTION_INDEX = "events.index";
+
+    // Ordered the same way as annotations are checked in EventHandlerUtils
+    static final List<String> HANDLER_ANNOTATIONS = Arrays.asList(RECEIVER, ASYNC_METHOD, UI_METHOD, CALLBACK);
+
+    private boolean isIndexWritten;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new LinkedHashSet<String>(HANDLER_ANNOTATIONS);
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(OPTION_INDEX);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            return false;
+        }
+
+        final Map<TypeElement, List<HandlerMethod>> handlers = collectHandlers(roundEnv);
+
+        // receiver class binary name -> generated invokers class name
+        final Map<String, String> invokers = new LinkedHashMap<String, String>();
+        for (final Map.Entry<TypeElement, List<HandlerMethod>> entry : handlers.entrySet()) {
+            final TypeElement type = entry.getKey();
+            if (!isAccessibleFromPackage(type)) {
+                // Reflection will be used for such classes
+                continue;
+            }
+
+            final List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+            for (final HandlerMethod handler : entry.getValue()) {
+                if (!handler.method.getModifiers().contains(Modifier.PRIVATE)) {
+                    methods.add(handler.method);
+                }
+            }
+            if (methods.isEmpty()) {
+                continue;
+            }
+
+            try {
+                new InvokersWriter(processingEnv, type, methods).write();
+                invokers.put(getBinaryName(type), InvokersWriter.getInvokersClassName(processingEnv, type));
+            } catch (final IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot generate event invokers: " + e.getMessage(), type);
+            }
+        }
+
+        final String indexClassName = processingEnv.getOptions().get(OPTION_INDEX);
+        if (null != indexClassName) {
+            if (isIndexWritten) {
+                if (!handlers.isEmpty()) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                            "Handler methods in generated classes are not added to " + indexClassName + ", reflection will be used for them");
+                }
+            } else {
+                isIndexWritten = true;
+                try {
+                    new IndexWriter(processingEnv, indexClassName, collectReceivers(roundEnv, handlers), invokers).write();
+                } catch (final IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot generate events index: " + e.getMessage());
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return valid handler methods grouped by class. Methods with errors are reported and skipped
+     */
+    private Map<TypeElement, List<HandlerMethod>> collectHandlers(final RoundEnvironment roundEnv) {
+        final Map<TypeElement, List<HandlerMethod>> handlers = new LinkedHashMap<TypeElement, List<HandlerMethod>>();
+        final Set<Element> methods = new HashSet<Element>();
+
+        for (final String annotationName : HANDLER_ANNOTATIONS) {
+            final TypeElement annotation = processingEnv.getElementUtils().getTypeElement(annotationName);
+            if (null == annotation) {
+                continue;
+            }
+
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (ElementKind.METHOD != element.getKind()) {
+                    continue;
+                }
+                if (!methods.add(element)) {
+                    // method has several annotations, it was already parsed
+                    continue;
+                }
+                final HandlerMethod handler = HandlerMethod.parse(processingEnv, (ExecutableElement) element);
+                if (null == handler) {
+                    continue;
+                }
+
+                final TypeElement type = (TypeElement) element.getEnclosingElement();
+                List<HandlerMethod> typeHandlers = handlers.get(type);
+                if (null == typeHandlers) {
+                    typeHandlers = new ArrayList<HandlerMethod>();
+                    handlers.put(type, typeHandlers);
+                }
+                typeHandlers.add(handler);
+            }
+        }
+
+        return Collections.unmodifiableMap(handlers);
+    }
+
+    /**
+     * Returns classes for the index: classes with handler methods, their subclasses and superclasses from this module.
+     * Classes without handler methods are indexed too, so they are not scanned with reflection when receiver is registered.
+     */
+    private Map<String, List<HandlerMethod>> collectReceivers(final RoundEnvironment roundEnv, final Map<TypeElement, List<HandlerMethod>> handlers) {
+        final Set<TypeElement> sourceTypes = new LinkedHashSet<TypeElement>();
+        collectClasses(ElementFilter.typesIn(roundEnv.getRootElements()), sourceTypes);
+
+        final Set<TypeElement> receiverTypes = new LinkedHashSet<TypeElement>();
+        for (final TypeElement type : sourceTypes) {
+            final List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+            boolean hasHandlers = false;
+            for (TypeElement superType = type; null != superType; superType = getSuperclass(superType)) {
+                hierarchy.add(superType);
+                hasHandlers |= handlers.containsKey(superType);
+            }
+            if (hasHandlers) {
+                for (final TypeElement superType : hierarchy) {
+                    if (sourceTypes.contains(superType)) {
+                        receiverTypes.add(superType);
+                    }
+                }
+            }
+        }
+
+        final Map<String, List<HandlerMethod>> receivers = new LinkedHashMap<String, List<HandlerMethod>>();
+        for (final TypeElement type : receiverTypes) {
+            final List<HandlerMethod> typeHandlers = handlers.get(type);
+            receivers.put(getBinaryName(type), null == typeHandlers ? Collections.<HandlerMethod>emptyList() : typeHandlers);
+        }
+        return receivers;
+    }
+
+    private static void collectClasses(final Iterable<TypeElement> types, final Set<TypeElement> classes) {
+        for (final TypeElement type : types) {
+            if (ElementKind.CLASS == type.getKind()) {
+                classes.add(type);
+            }
+            collectClasses(ElementFilter.typesIn(type.getEnclosedElements()), classes);
+        }
+    }
+
+    private static TypeElement getSuperclass(final TypeElement type) {
+        final TypeMirror superclass = type.getSuperclass();
+        return TypeKind.DECLARED == superclass.getKind() ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    private String getBinaryName(final TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    /**
+     * Generated class is placed in the same package, so it can't use private classes (or classes nested in private
+     * classes) and local classes.
+     */
+    static boolean isAccessibleFromPackage(final TypeElement type) {
+        Element element = type;
+        while (element.getKind().isClass() || element.getKind().isInterface()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return ElementKind.PACKAGE == element.getKind();
+    }
+}
@@ -0,0 +1,193 @@
+package com.azoft.events.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.tools.Diagnostic;
+
+/**
+ * Handler method annotation values. Mirrors checks that are done in runtime by EventHandlerUtils, so wrong methods are
+ * reported at build time.
+ */
+final class HandlerMethod {
+
+    static final String CACHE = EventsProcessor.EVENTS_PACKAGE + ".Events.Cache";
+    static final String DEFAULT_PRIORITY = "NORMAL";
+    static final String DEFAULT_CACHE_KEY = EventsProcessor.EVENTS_PACKAGE + ".cache.EventKeyExtractor";
+
+    private static final String EVENT = EventsProcessor.EVENTS_PACKAGE + ".Event";
+    private static final String EVENT_CALLBACK = EventsProcessor.EVENTS_PACKAGE + ".EventCallback";
+    private static final String LIST = "java.util.List";
+
+    final ExecutableElement method;
+    final String annotation;
+    final List<Integer> ids = new ArrayList<Integer>();
+    final List<String> keys = new ArrayList<String>();
+
+    boolean batch;
+    boolean singleThreadExecutor;
+    String executor = "";
+    String serialLane = "";
+    // name of Event.Priority constant
+    String priority = DEFAULT_PRIORITY;
+    // full name of cache provider class or null
+    String cache;
+    // full name of cache key extractor class
+    String cacheKey = DEFAULT_CACHE_KEY;
+    boolean cacheSingleFlight;
+    long cacheRefreshAhead;
+
+    private HandlerMethod(final ExecutableElement method, final String annotation) {
+        this.method = method;
+        this.annotation = annotation;
+    }
+
+    /**
+     * @return handler method or null if method has errors. Errors are reported to messager
+     */
+    static HandlerMethod parse(final ProcessingEnvironment processingEnv, final ExecutableElement method) {
+        // The same priority as in EventHandlerUtils: only one annotation is used
+        for (final String annotationName : EventsProcessor.HANDLER_ANNOTATIONS) {
+            final AnnotationMirror annotation = getAnnotation(method, annotationName);
+            if (null != annotation) {
+                final HandlerMethod handlerMethod = new HandlerMethod(method, annotationName);
+                return handlerMethod.parse(processingEnv, annotation) ? handlerMethod : null;
+            }
+        }
+        return null;
+    }
+
+    String getName() {
+        return method.getSimpleName().toString();
+    }
+
+    boolean isCallback() {
+        return EventsProcessor.CALLBACK.equals(annotation);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean parse(final ProcessingEnvironment processingEnv, final AnnotationMirror mirror) {
+        if (EventsProcessor.RECEIVER.equals(annotation)) {
+            batch = (Boolean) getValue(processingEnv, mirror, "batch");
+        }
+
+        final String parameterType = isCallback() ? EVENT_CALLBACK : batch ? LIST : EVENT;
+        if (1 != method.getParameters().size() ||
+                !parameterType.equals(processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType()).toString())) {
+            return error(processingEnv, "Method " + getName() + " should have parameters: (" + parameterType.substring(parameterType.lastIndexOf('.') + 1) + ')');
+        }
+
+        if (EventsProcessor.RECEIVER.equals(annotation)) {
+            for (final AnnotationValue value : (List<? extends AnnotationValue>) getValue(processingEnv, mirror, "value")) {
+                ids.add((Integer) value.getValue());
+            }
+            for (final AnnotationValue value : (List<? extends AnnotationValue>) getValue(processingEnv, mirror, "keys")) {
+                keys.add((String) value.getValue());
+            }
+            if (!ids.isEmpty() && !keys.isEmpty()) {
+                return error(processingEnv, "You can't set both ids and keys in " + getName());
+            }
+            if (ids.isEmpty() && keys.isEmpty()) {
+                return error(processingEnv, "You should set at least one id or key in " + getName());
+            }
+            for (final Integer id : ids) {
+                if (0 == id) {
+                    return error(processingEnv, "you should set id or key value here");
+                }
+            }
+            for (final String key : keys) {
+                if (key.isEmpty()) {
+                    return error(processingEnv, "you should set id or key value here");
+                }
+            }
+        } else {
+            final int id = (Integer) getValue(processingEnv, mirror, "value");
+            final String key = (String) getValue(processingEnv, mirror, "key");
+            if (0 == id && key.isEmpty()) {
+                return error(processingEnv, "you should set id or key value here");
+            } else if (0 != id && !key.isEmpty()) {
+                return error(processingEnv, "you should NOT set both id and key values here");
+            }
+            ids.add(id);
+            keys.add(key);
+        }
+
+        priority = ((VariableElement) getValue(processingEnv, mirror, "priority")).getSimpleName().toString();
+
+        if (EventsProcessor.ASYNC_METHOD.equals(annotation)) {
+            singleThreadExecutor = (Boolean) getValue(processingEnv, mirror, "singleThreadExecutor");
+            executor = (String) getValue(processingEnv, mirror, "executor");
+            serialLane = (String) getValue(processingEnv, mirror, "serialLane");
+        }
+
+        if (EventsProcessor.ASYNC_METHOD.equals(annotation) || EventsProcessor.UI_METHOD.equals(annotation)) {
+            final AnnotationMirror cacheAnnotation = getAnnotation(method, CACHE);
+            if (null != cacheAnnotation) {
+                final TypeElement cacheType = (TypeElement) ((DeclaredType) getValue(processingEnv, cacheAnnotation, "value")).asElement();
+                if (!isPublic(cacheType)) {
+                    return error(processingEnv, "Cache provider " + cacheType.getQualifiedName() + " should be public");
+                }
+                cache = cacheType.getQualifiedName().toString();
+
+                final TypeElement keyType = (TypeElement) ((DeclaredType) getValue(processingEnv, cacheAnnotation, "key")).asElement();
+                if (!isPublic(keyType)) {
+                    return error(processingEnv, "Cache key extractor " + keyType.getQualifiedName() + " should be public");
+                }
+                cacheKey = keyType.getQualifiedName().toString();
+                cacheSingleFlight = (Boolean) getValue(processingEnv, cacheAnnotation, "singleFlight");
+                cacheRefreshAhead = (Long) getValue(processingEnv, cacheAnnotation, "refreshAhead");
+            }
+        }
+
+        return true;
+    }
+
+    private boolean error(final ProcessingEnvironment processingEnv, final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, method);
+        return false;
+    }
+
+    static AnnotationMirror getAnnotation(final Element element, final String annotationName) {
+        for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().asElement().toString().equals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    static Object getValue(final ProcessingEnvironment processingEnv, final AnnotationMirror annotation, final String name) {
+        final Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        throw new IllegalArgumentException("Annotation " + annotation + " has no " + name + " value");
+    }
+
+    /**
+     * Class is public and all classes it is nested in are public too
+     */
+    private static boolean isPublic(final TypeElement type) {
+        Element element = type;
+        while (element.getKind().isClass() || element.getKind().isInterface()) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+}
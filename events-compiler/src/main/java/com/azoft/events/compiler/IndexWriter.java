@@ -0,0 +1,142 @@
+package com.azoft.events.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.ProcessingEnvironment;
+
+/**
+ * Writes {@code com.azoft.events.EventsIndex} implementation with handler methods of all receiver classes in the module.
+ */
+final class IndexWriter {
+
+    private final ProcessingEnvironment processingEnv;
+    private final String indexClassName;
+    // receiver class binary name -> its handler methods. Classes without handler methods have empty list
+    private final Map<String, List<HandlerMethod>> receivers;
+    // receiver class binary name -> generated invokers class name
+    private final Map<String, String> invokers;
+
+    IndexWriter(final ProcessingEnvironment processingEnv, final String indexClassName,
+                final Map<String, List<HandlerMethod>> receivers, final Map<String, String> invokers) {
+        this.processingEnv = processingEnv;
+        this.indexClassName = indexClassName;
+        this.receivers = receivers;
+        this.invokers = invokers;
+    }
+
+    void write() throws IOException {
+        final int packageEnd = indexClassName.lastIndexOf('.');
+        final String packageName = -1 == packageEnd ? "" : indexClassName.substring(0, packageEnd);
+        final String simpleClassName = indexClassName.substring(packageEnd + 1);
+
+        final Writer writer = processingEnv.getFiler().createSourceFile(indexClassName).openWriter();
+        try {
+            writer.write("// Generated code from events-compiler. Do not modify!\n");
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("import " + EventsProcessor.EVENTS_PACKAGE + ".EventsIndex;\n");
+            writer.write("import " + EventsProcessor.EVENTS_PACKAGE + ".HandlerInfo;\n");
+            writer.write("import " + EventsProcessor.EVENTS_PACKAGE + ".ReceiverInfo;\n\n");
+            writer.write("import java.util.HashMap;\n");
+            writer.write("import java.util.Map;\n\n");
+            writer.write("public final class " + simpleClassName + " implements EventsIndex {\n\n");
+            writer.write("    private static final Map<String, ReceiverInfo> RECEIVERS = new HashMap<String, ReceiverInfo>();\n\n");
+            writer.write("    static {\n");
+            for (final Map.Entry<String, List<HandlerMethod>> entry : receivers.entrySet()) {
+                writeReceiver(writer, entry.getKey(), entry.getValue());
+            }
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public ReceiverInfo getReceiverInfo(final Class<?> receiverClass) {\n");
+            writer.write("        return RECEIVERS.get(receiverClass.getName());\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void writeReceiver(final Writer writer, final String className, final List<HandlerMethod> handlers) throws IOException {
+        final String invokersClassName = invokers.get(className);
+        writer.write("        RECEIVERS.put(" + quote(className) + ", new ReceiverInfo(" +
+                (null == invokersClassName ? "null" : "new " + invokersClassName + "()"));
+        for (final HandlerMethod handler : handlers) {
+            writer.write(",\n                " + getHandlerInfo(handler));
+        }
+        writer.write("));\n");
+    }
+
+    private static String getHandlerInfo(final HandlerMethod handler) {
+        final StringBuilder builder = new StringBuilder("HandlerInfo.");
+        if (EventsProcessor.RECEIVER.equals(handler.annotation)) {
+            builder.append("receiver(").append(quote(handler.getName())).append(", new int[]{");
+            for (int i = 0; i < handler.ids.size(); i++) {
+                builder.append(0 == i ? "" : ", ").append(handler.ids.get(i));
+            }
+            builder.append("}, new String[]{");
+            for (int i = 0; i < handler.keys.size(); i++) {
+                builder.append(0 == i ? "" : ", ").append(quote(handler.keys.get(i)));
+            }
+            builder.append("})");
+        } else {
+            final String factory;
+            if (EventsProcessor.ASYNC_METHOD.equals(handler.annotation)) {
+                factory = "asyncMethod";
+            } else if (EventsProcessor.UI_METHOD.equals(handler.annotation)) {
+                factory = "uiMethod";
+            } else {
+                factory = "callback";
+            }
+            builder.append(factory).append('(').append(quote(handler.getName())).append(", ")
+                    .append(handler.ids.get(0)).append(", ").append(quote(handler.keys.get(0))).append(')');
+        }
+
+        if (handler.batch) {
+            builder.append(".batch()");
+        }
+        if (handler.singleThreadExecutor) {
+            builder.append(".singleThreadExecutor()");
+        }
+        if (!handler.executor.isEmpty()) {
+            builder.append(".executor(").append(quote(handler.executor)).append(')');
+        }
+        if (!handler.serialLane.isEmpty()) {
+            builder.append(".serialLane(").append(quote(handler.serialLane)).append(')');
+        }
+        if (!HandlerMethod.DEFAULT_PRIORITY.equals(handler.priority)) {
+            builder.append(".priority(").append(EventsProcessor.EVENTS_PACKAGE).append(".Event.Priority.").append(handler.priority).append(')');
+        }
+        if (null != handler.cache) {
+            builder.append(".cache(").append(handler.cache).append(".class)");
+        }
+        if (!HandlerMethod.DEFAULT_CACHE_KEY.equals(handler.cacheKey)) {
+            builder.append(".cacheKey(").append(handler.cacheKey).append(".class)");
+        }
+        if (handler.cacheSingleFlight) {
+            builder.append(".cacheSingleFlight()");
+        }
+        if (0L != handler.cacheRefreshAhead) {
+            builder.append(".cacheRefreshAhead(").append(handler.cacheRefreshAhead).append("L)");
+        }
+        return builder.toString();
+    }
+
+    static String quote(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if ('"' == c || '\\' == c) {
+                builder.append('\\').append(c);
+            } else if (c < ' ' || c > '~') {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
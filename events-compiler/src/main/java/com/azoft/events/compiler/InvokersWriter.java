@@ -0,0 +1,95 @@
+package com.azoft.events.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Writes {@code <ReceiverClass>$$EventInvokers} source file.
+ */
+final class InvokersWriter {
+
+    static final String CLASS_SUFFIX = "$$EventInvokers";
+
+    private final ProcessingEnvironment processingEnv;
+    private final TypeElement type;
+    private final List<ExecutableElement> methods;
+
+    InvokersWriter(final ProcessingEnvironment processingEnv, final TypeElement type, final List<ExecutableElement> methods) {
+        this.processingEnv = processingEnv;
+        this.type = type;
+        this.methods = methods;
+    }
+
+    /**
+     * @return full name of generated class for the receiver class
+     */
+    static String getInvokersClassName(final ProcessingEnvironment processingEnv, final TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type) + CLASS_SUFFIX;
+    }
+
+    void write() throws IOException {
+        final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        final String className = getInvokersClassName(processingEnv, type);
+        final String simpleClassName = packageName.isEmpty() ? className : className.substring(packageName.length() + 1);
+        final String targetName = type.getQualifiedName().toString();
+
+        final Writer writer = processingEnv.getFiler().createSourceFile(className, type).openWriter();
+        try {
+            writer.write("// Generated code from events-compiler. Do not modify!\n");
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("import " + EventsProcessor.EVENTS_PACKAGE + ".EventInvoker;\n");
+            writer.write("import " + EventsProcessor.EVENTS_PACKAGE + ".EventInvokers;\n\n");
+            writer.write("public final class " + simpleClassName + " implements EventInvokers {\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public EventInvoker getInvoker(final String methodName, final Class<?> parameterType) {\n");
+            for (final ExecutableElement method : methods) {
+                writeInvoker(writer, targetName, method);
+            }
+            writer.write("        return null;\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void writeInvoker(final Writer writer, final String targetName, final ExecutableElement method) throws IOException {
+        final String methodName = method.getSimpleName().toString();
+        final TypeMirror declaredType = method.getParameters().get(0).asType();
+        // erased type is compared with parameter type, declared one is used in the cast, so raw type isn't passed
+        final String parameterType = processingEnv.getTypeUtils().erasure(declaredType).toString();
+        final String castType = declaredType.toString();
+        final String call = (method.getModifiers().contains(Modifier.STATIC) ? targetName : "((" + targetName + ") target)") +
+                '.' + methodName + "((" + castType + ") parameter)";
+
+        writer.write("        if (\"" + methodName + "\".equals(methodName) && " + parameterType + ".class == parameterType) {\n");
+        writer.write("            return new EventInvoker() {\n");
+        writer.write("                @Override\n");
+        if (!castType.equals(parameterType)) {
+            // cast to generic type, like List<Event> of batch receiver, can't be checked
+            writer.write("                @SuppressWarnings(\"unchecked\")\n");
+        }
+        writer.write("                public Object invoke(final Object target, final Object parameter) throws Throwable {\n");
+        if (TypeKind.VOID == method.getReturnType().getKind()) {
+            writer.write("                    " + call + ";\n");
+            writer.write("                    return null;\n");
+        } else {
+            writer.write("                    return " + call + ";\n");
+        }
+        writer.write("                }\n");
+        writer.write("            };\n");
+        writer.write("        }\n");
+    }
+}
@@ -0,0 +1,321 @@
+package com.azoft.events;
+
+public class Event {
+
+    private static final int DATA_OBJECTS = 0;
+    private static final int DATA_INT = 1;
+    private static final int DATA_LONG = 2;
+    private static final int DATA_DOUBLE = 3;
+
+    private final int id;
+    // replaced with data of newer conflated event while this one is waiting for delivery
+    private Object[] data;
+    // single primitive value is stored without boxing. Double is stored as long bits
+    private int dataType = DATA_OBJECTS;
+    private long primitiveData;
+
+    EventHandler.Type handlerType;
+
+    // this field is inited only if we want one receiver for this event
+    EventReceiver eventReceiver;
+
+    // Whether "finished" callback was already sent and all subsequent callbacks should be ignored.
+    boolean isFinished;
+
+    // Whether event was canceled and all subsequent callbacks should be ignored,
+    // except "finished" callback which should be send immediately.
+    volatile boolean isCanceled;
+
+    // Whether event was postponed. Meaning no "finished" callback will be sent automatically
+    // after handler method is finished.
+    boolean isPostponed;
+
+    // Whether event was posted. It will be performed only once. An other starts will skipped.
+    boolean isSingleEvent;
+    // Key of single event in progress, made when it was posted. null if it is not in progress
+    SingleEventKey singleEventKey;
+
+    // Whether newer event with the same id replaces this one while it is waiting for delivery.
+    boolean isConflated;
+
+    Priority priority = Priority.NORMAL;
+
+    Event(final int id, final Object[] data) {
+        this.id = id;
+        this.data = data;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public <T> T getData() {
+        return getData(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getData(final int index) {
+        if (DATA_OBJECTS != dataType) {
+            return 0 == index ? (T) getPrimitiveData() : null;
+        }
+        return data == null || data.length <= index ? null : (T) data[index];
+    }
+
+    public int getDataCount() {
+        if (DATA_OBJECTS != dataType) {
+            return 1;
+        }
+        return data == null ? 0 : data.length;
+    }
+
+    /**
+     * @return data set with {@link Builder#dataInt(int)} (or first data item if it is a number) without boxing
+     */
+    public int getDataInt() {
+        switch (dataType) {
+            case DATA_INT:
+            case DATA_LONG:
+                return (int) primitiveData;
+            case DATA_DOUBLE:
+                return (int) Double.longBitsToDouble(primitiveData);
+            default:
+                final Number number = getData(0);
+                return null == number ? 0 : number.intValue();
+        }
+    }
+
+    /**
+     * @return data set with {@link Builder#dataLong(long)} (or first data item if it is a number) without boxing
+     */
+    public long getDataLong() {
+        switch (dataType) {
+            case DATA_INT:
+            case DATA_LONG:
+                return primitiveData;
+            case DATA_DOUBLE:
+                return (long) Double.longBitsToDouble(primitiveData);
+            default:
+                final Number number = getData(0);
+                return null == number ? 0L : number.longValue();
+        }
+    }
+
+    /**
+     * @return data set with {@link Builder#dataDouble(double)} (or first data item if it is a number) without boxing
+     */
+    public double getDataDouble() {
+        switch (dataType) {
+            case DATA_INT:
+            case DATA_LONG:
+                return primitiveData;
+            case DATA_DOUBLE:
+                return Double.longBitsToDouble(primitiveData);
+            default:
+                final Number number = getData(0);
+                return null == number ? 0.0 : number.doubleValue();
+        }
+    }
+
+    private Object getPrimitiveData() {
+        switch (dataType) {
+            case DATA_INT:
+                return (int) primitiveData;
+            case DATA_LONG:
+                return primitiveData;
+            default:
+                return Double.longBitsToDouble(primitiveData);
+        }
+    }
+
+    void replaceData(final Event event) {
+        data = event.data;
+        dataType = event.dataType;
+        primitiveData = event.primitiveData;
+    }
+
+
+    /**
+     * Sends {@link EventCallback.Status#RESULT} callback.
+     * <p/>
+     * You can only use this method with events received inside methods marked with
+     * {@link Events.AsyncMethod} or {@link Events.UiMethod} annotations.
+     */
+    public void sendResult(final Object... result) {
+        EventsDispatcher.sendResult(this, result);
+    }
+
+    /**
+     * After calling this, event will never be marked as finished automatically.
+     */
+    public void postpone() {
+        isPostponed = true;
+    }
+
+    /**
+     * Sends {@link EventCallback.Status#FINISHED} callback.
+     * No further callbacks will be send after that.
+     * <p/>
+     * This is particularly useful after calling {@link #postpone()} method, since it will prevent event from being
+     * automatically marked as finished.
+     * <p/>
+     * You can only use this method with events received inside methods marked with
+     * {@link Events.AsyncMethod} or {@link Events.UiMethod} annotations.
+     */
+    public void finish() {
+        EventsDispatcher.sendFinished(this);
+    }
+
+    public void cancel() {
+        EventsDispatcher.cancelEvent(this);
+    }
+
+
+    public static class Builder {
+
+        private final int id;
+        private Object[] data;
+        private int dataType = DATA_OBJECTS;
+        private long primitiveData;
+        private boolean single;
+        private boolean conflate;
+        private Priority priority = Priority.NORMAL;
+
+        Builder(final int id) {
+            this.id = id;
+        }
+
+        public Builder data(final Object... data) {
+            this.data = data;
+            dataType = DATA_OBJECTS;
+            return this;
+        }
+
+        /**
+         * Sets single int data without boxing. See {@link Event#getDataInt()}.
+         */
+        public Builder dataInt(final int data) {
+            return primitiveData(DATA_INT, data);
+        }
+
+        /**
+         * Sets single long data without boxing. See {@link Event#getDataLong()}.
+         */
+        public Builder dataLong(final long data) {
+            return primitiveData(DATA_LONG, data);
+        }
+
+        /**
+         * Sets single double data without boxing. See {@link Event#getDataDouble()}.
+         */
+        public Builder dataDouble(final double data) {
+            return primitiveData(DATA_DOUBLE, Double.doubleToRawLongBits(data));
+        }
+
+        private Builder primitiveData(final int dataType, final long primitiveData) {
+            this.dataType = dataType;
+            this.primitiveData = primitiveData;
+            data = null;
+            return this;
+        }
+
+        /**
+         * If there is the same event (with the same id and data) and this event doesn't post result to target callback, then no new event will be trigered.
+         * This is useful for big requests and handling activity recreation.
+         */
+        public Builder single() {
+            single = true;
+            return this;
+        }
+
+        /**
+         * @param single if true then {@link #single()}, else event will be send
+         */
+        public Builder single(final boolean single) {
+            this.single = single;
+            return this;
+        }
+
+        /**
+         * While event with the same id (and the same target receiver for {@link #postTo(Object)}) is waiting for delivery,
+         * new event replaces it instead of being queued. So slow or paused receivers get only the latest data.
+         * <p/>
+         * Receivers get the newest event. For {@link Events.AsyncMethod} and {@link Events.UiMethod} handlers data of
+         * waiting event is replaced, and new event is finished right away without any callbacks.
+         * <p/>
+         * This is useful for progress, location and other frequent updates. Can't be used with {@link #single()}.
+         */
+        public Builder conflate() {
+            conflate = true;
+            return this;
+        }
+
+        /**
+         * @param conflate if true then {@link #conflate()}, else every event will be delivered
+         */
+        public Builder conflate(final boolean conflate) {
+            this.conflate = conflate;
+            return this;
+        }
+
+        /**
+         * Event and its callbacks are delivered before events with lower priority that are waiting in the queue.
+         * {@link Priority#NORMAL} is used by default.
+         */
+        public Builder priority(final Priority priority) {
+            if (null == priority) {
+                throw new NullPointerException("priority can't be null");
+            }
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Post this event to any receiver callback that is registered now (and during event processing)
+         */
+        public Event post() {
+            final Event event = build();
+            EventsDispatcher.postEvent(event);
+            return event;
+        }
+
+        /**
+         * Post this event only to this receiver. Even if there is registered other receiver for this eventId event will be triggered only for specified receiver
+         *
+         * @param receiver the only receiver callback to send event to
+         */
+        public Event postTo(final Object receiver) {
+            final Event event = build();
+            EventsDispatcher.postEventTo(event, receiver);
+            return event;
+        }
+
+        private Event build() {
+            if (single && conflate) {
+                throw new IllegalStateException("single event can't be conflated");
+            }
+            final Event event = new Event(id, data);
+            event.dataType = dataType;
+            event.primitiveData = primitiveData;
+            event.isSingleEvent = single;
+            event.isConflated = conflate;
+            event.priority = priority;
+            return event;
+        }
+    }
+
+    /**
+     * Priority of delivery in main thread. Events and callbacks with higher priority are delivered first, the rest of them
+     * wait for the next dispatch cycle if main thread time is over.
+     * <p/>
+     * Delivery gets the higher of the event priority ({@link Builder#priority(Priority)}) and the handler priority
+     * (priority parameter of handler annotation). So callbacks of one event are delivered to the same method in order they
+     * were sent.
+     */
+    public enum Priority {
+        HIGH, NORMAL, BACKGROUND
+    }
+}
\ No newline at end of file
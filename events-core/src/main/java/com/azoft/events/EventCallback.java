@@ -0,0 +1,166 @@
+package com.azoft.events;
+
+public class EventCallback {
+
+    private static final int MAX_POOL_SIZE = 50;
+
+    private static final Object POOL_LOCK = new Object();
+    private static EventCallback sPool;
+    private static int sPoolSize;
+
+    static EventCallback started(final Event event) {
+        return obtain(event, null, null, null, Status.STARTED);
+    }
+
+    static EventCallback result(final Event event, final Object[] results) {
+        return obtain(event, null, results, null, Status.RESULT);
+    }
+
+    static EventCallback result(final Event event, final Object result) {
+        return obtain(event, result, null, null, Status.RESULT);
+    }
+
+    static EventCallback error(final Event event, final Throwable error) {
+        return obtain(event, null, null, error, Status.ERROR);
+    }
+
+    static EventCallback finished(final Event event) {
+        return obtain(event, null, null, null, Status.FINISHED);
+    }
+
+    private Event event;
+    private int id;
+    // single result is stored without array
+    private Object result;
+    private Object[] results;
+    private Throwable error;
+    private Status status;
+
+    private boolean isErrorHandled;
+
+    // next callback that should be posted together with this one, or next callback in the pool
+    EventCallback next;
+    // number of owners: the one who posts callback and queued deliveries. Changed from UI thread only
+    private int refCount;
+
+    private EventCallback() {
+    }
+
+    /**
+     * Returns callback from the pool if {@link Events#setPooling(boolean)} is on. Caller owns it and should {@link #release()} it.
+     */
+    private static EventCallback obtain(final Event event, final Object result, final Object[] results, final Throwable error,
+                                        final Status status) {
+        EventCallback callback = null;
+        if (Events.isPooling) {
+            synchronized (POOL_LOCK) {
+                if (null != sPool) {
+                    callback = sPool;
+                    sPool = callback.next;
+                    callback.next = null;
+                    --sPoolSize;
+                }
+            }
+        }
+        if (null == callback) {
+            callback = new EventCallback();
+        }
+
+        callback.id = event.getId();
+        callback.event = event;
+        callback.result = result;
+        callback.results = results;
+        callback.error = error;
+        callback.status = status;
+        callback.refCount = 1;
+        return callback;
+    }
+
+    void retain() {
+        ++refCount;
+    }
+
+    /**
+     * Callback is returned to the pool when it is released by all its owners.
+     */
+    void release() {
+        if (0 == --refCount && Events.isPooling) {
+            event = null;
+            result = null;
+            results = null;
+            error = null;
+            status = null;
+            isErrorHandled = false;
+            synchronized (POOL_LOCK) {
+                if (MAX_POOL_SIZE > sPoolSize) {
+                    next = sPool;
+                    sPool = this;
+                    ++sPoolSize;
+                }
+            }
+        }
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public <T> T getResult() {
+        return getResult(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getResult(final int index) {
+        if (null == results) {
+            return 0 == index ? (T) result : null;
+        }
+        return results.length <= index ? null : (T) results[index];
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isStarted() {
+        return status == Status.STARTED;
+    }
+
+    public boolean isResult() {
+        return status == Status.RESULT;
+    }
+
+    public boolean isError() {
+        return status == Status.ERROR;
+    }
+
+    public boolean isFinished() {
+        return status == Status.FINISHED;
+    }
+
+
+    public void markErrorAsHandled() {
+        if (status != Status.ERROR) {
+            throw new RuntimeException("Cannot markErrorAsHandled for non-ERROR callbacks");
+        }
+        isErrorHandled = true;
+    }
+
+    public boolean isErrorHandled() {
+        if (status != Status.ERROR) {
+            throw new RuntimeException("Method isErrorHandled does not make sense for non-ERROR callbacks");
+        }
+        return isErrorHandled;
+    }
+
+    public enum Status {
+        STARTED, RESULT, ERROR, FINISHED
+    }
+}
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.azoft.events;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of named executors for methods marked with {@link Events.AsyncMethod}. Executor is selected with
+ * {@link Events.AsyncMethod#executor()}, methods with the same {@link Events.AsyncMethod#serialLane()} are executed one by one.
+ * <p/>
+ * This class is thread safe.
+ */
+final class EventExecutors {
+
+    static final String DEFAULT_EXECUTOR = "";
+
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+
+    private static final ExecutorService SINGLE_THREAD_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private static final ConcurrentMap<String, Executor> EXECUTORS = new ConcurrentHashMap<String, Executor>();
+    private static final ConcurrentMap<String, SerialLane> SERIAL_LANES = new ConcurrentHashMap<String, SerialLane>();
+
+    private static final int CACHE_THREADS = 2;
+
+    static {
+        EXECUTORS.put(DEFAULT_EXECUTOR, Executors.newCachedThreadPool());
+        EXECUTORS.put(Events.CACHE_EXECUTOR, newBoundedExecutor(Events.CACHE_EXECUTOR, CACHE_THREADS));
+    }
+
+    private EventExecutors() {
+    }
+
+    static void register(final String name, final Executor executor) {
+        if (null == name || null == executor) {
+            throw new NullPointerException("name and executor can't be null");
+        }
+        EXECUTORS.put(name, executor);
+    }
+
+    /**
+     * Creates executor with at most maxThreads threads. Other tasks are waiting in the queue. Idle threads are stopped.
+     */
+    static ExecutorService newBoundedExecutor(final String name, final int maxThreads) {
+        if (0 >= maxThreads) {
+            throw new IllegalArgumentException("maxThreads should be positive");
+        }
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Executes handler task on its executor. Can be called from any thread. Task of serial lane can be rejected later, when
+     * previous task of the lane is finished, so it is told about rejection with {@link HandlerTask#onRejected}.
+     *
+     * @throws IllegalStateException                           if executor of the handler is not registered
+     * @throws java.util.concurrent.RejectedExecutionException if executor doesn't accept the task which is not in serial lane
+     */
+    static void execute(final EventHandler handler, final HandlerTask task) {
+        if (handler.getType().isAsyncSingle()) {
+            SINGLE_THREAD_EXECUTOR.execute(task);
+            return;
+        }
+
+        final Executor executor = EXECUTORS.get(handler.getExecutorName());
+        if (null == executor) {
+            throw new IllegalStateException("Executor \"" + handler.getExecutorName() + "\" is not registered for event " +
+                    Utils.getName(handler.getEventId()));
+        }
+
+        if (null == handler.getSerialLane()) {
+            executor.execute(task);
+        } else {
+            getSerialLane(handler.getSerialLane()).execute(task, executor);
+        }
+    }
+
+    /**
+     * Executes loading or saving of {@link com.azoft.events.cache.AsyncCacheProvider} result. Can be called from any thread.
+     */
+    static void executeCacheTask(final Runnable task) {
+        EXECUTORS.get(Events.CACHE_EXECUTOR).execute(task);
+    }
+
+    /**
+     * @return state of registered executors that are {@link ThreadPoolExecutor}
+     */
+    static List<MetricsSnapshot.ExecutorStats> getStats() {
+        final List<MetricsSnapshot.ExecutorStats> stats = new ArrayList<MetricsSnapshot.ExecutorStats>();
+        for (final Map.Entry<String, Executor> entry : EXECUTORS.entrySet()) {
+            if (entry.getValue() instanceof ThreadPoolExecutor) {
+                final ThreadPoolExecutor executor = (ThreadPoolExecutor) entry.getValue();
+                stats.add(new MetricsSnapshot.ExecutorStats(entry.getKey(), executor.getActiveCount(), executor.getPoolSize(),
+                        executor.getQueue().size()));
+            }
+        }
+        return stats;
+    }
+
+    private static SerialLane getSerialLane(final String name) {
+        SerialLane lane = SERIAL_LANES.get(name);
+        if (null == lane) {
+            final SerialLane newLane = new SerialLane();
+            lane = SERIAL_LANES.putIfAbsent(name, newLane);
+            if (null == lane) {
+                lane = newLane;
+            }
+        }
+        return lane;
+    }
+
+    /**
+     * Runs tasks one by one, each of them on executor it was added with. Unlike single thread executor, lane doesn't hold
+     * any thread and doesn't block tasks of other lanes.
+     */
+    private static final class SerialLane {
+
+        // Guarded by this
+        private final Queue<LaneTask> tasks = new ArrayDeque<LaneTask>();
+        private boolean isRunning;
+
+        void execute(final HandlerTask task, final Executor executor) {
+            synchronized (this) {
+                tasks.add(new LaneTask(task, executor));
+                if (isRunning) {
+                    return;
+                }
+                isRunning = true;
+            }
+            scheduleNext();
+        }
+
+        /**
+         * Sends the next task to its executor. Rejected tasks are failed and the next ones are tried, so lane is never
+         * blocked. Called by the thread that owns the lane while isRunning is true.
+         */
+        private void scheduleNext() {
+            for (; ; ) {
+                final LaneTask next;
+                synchronized (this) {
+                    next = tasks.poll();
+                    isRunning = null != next;
+                    if (!isRunning) {
+                        return;
+                    }
+                }
+                try {
+                    next.executor.execute(next);
+                    return;
+                }
+                catch (final RejectedExecutionException e) {
+                    // executor is shut down or saturated
+                    next.task.onRejected(e);
+                }
+                catch (final RuntimeException e) {
+                    synchronized (this) {
+                        isRunning = false;
+                    }
+                    throw e;
+                }
+            }
+        }
+
+        private final class LaneTask implements Runnable {
+
+            private final HandlerTask task;
+            private final Executor executor;
+
+            LaneTask(final HandlerTask task, final Executor executor) {
+                this.task = task;
+                this.executor = executor;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                }
+                finally {
+                    scheduleNext();
+                }
+            }
+        }
+    }
+
+    /**
+     * Task of handler method that can be rejected by its executor.
+     */
+    interface HandlerTask extends Runnable {
+
+        /**
+         * Called instead of {@link #run()} if executor didn't accept the task, in the thread that tried to execute it.
+         */
+        void onRejected(RejectedExecutionException e);
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        NamedThreadFactory(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            return new Thread(runnable, "Events " + name + " #" + count.getAndIncrement());
+        }
+    }
+}
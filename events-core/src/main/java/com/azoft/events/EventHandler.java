@@ -0,0 +1,281 @@
+package com.azoft.events;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionException;
+
+class EventHandler {
+
+    private static final String TAG = EventHandler.class.getSimpleName();
+
+    private final Method method;
+    // generated invoker is used instead of reflection if there is one
+    private final EventInvoker invoker;
+    private final Type type;
+    private final int eventId;
+    private final HandlerCache cache;
+    // executor and serial lane are used only for async methods
+    private final String executorName;
+    private final String serialLane;
+    private final Event.Priority priority;
+
+    EventHandler(final Method method, final EventInvoker invoker, final Type type, final int eventId, final HandlerCache cache,
+                 final Event.Priority priority) {
+        this(method, invoker, type, eventId, cache, EventExecutors.DEFAULT_EXECUTOR, null, priority);
+    }
+
+    EventHandler(final Method method, final EventInvoker invoker, final Type type, final int eventId, final HandlerCache cache,
+                 final String executorName, final String serialLane, final Event.Priority priority) {
+        this.method = method;
+        this.invoker = invoker;
+        this.type = type;
+        this.eventId = eventId;
+        this.cache = cache;
+        this.executorName = executorName;
+        this.serialLane = serialLane;
+        this.priority = priority;
+    }
+
+    int getEventId() {
+        return eventId;
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    String getExecutorName() {
+        return executorName;
+    }
+
+    /**
+     * @return serial lane name or null if method can be executed in parallel with other methods
+     */
+    String getSerialLane() {
+        return serialLane;
+    }
+
+    Event.Priority getPriority() {
+        return priority;
+    }
+
+
+    /**
+     * @return true if cached result of UI method should be loaded in cache executor before the method is called
+     */
+    boolean hasAsyncCache() {
+        return null != cache && cache.isAsync();
+    }
+
+    /**
+     * Loads cached result of UI method in cache executor thread. Callbacks are sent if method shouldn't be called.
+     *
+     * @return true if the method should be called
+     */
+    boolean loadAsyncCache(final Event event) {
+        final EventsTracer tracer = Tracing.begin(EventsTracer.Stage.CACHE_LOAD, eventId);
+        try {
+            final boolean isCacheUsed = cache.load(event);
+            if (Events.isDebug) {
+                EventsLog.d(TAG, eventId, "Cached value for event {event} is used = {}", isCacheUsed);
+            }
+            if (!isCacheUsed) {
+                return true;
+            }
+            sendCallbacks(event, null, null);
+        }
+        catch (final Throwable e) {
+            sendCallbacks(event, null, e);
+        }
+        finally {
+            Tracing.end(tracer, EventsTracer.Stage.CACHE_LOAD, eventId);
+        }
+        return false;
+    }
+
+    /**
+     * @param isCacheLoaded true if cache was already checked by {@link #loadAsyncCache(Event)}
+     */
+    void handle(final Object target, final Object parameter, final boolean isCacheLoaded) {
+        boolean isCacheUsed = false;
+        Throwable error = null;
+
+        if (null != cache && !isCacheLoaded) {
+            // Asking cache provider for cached result
+            final EventsTracer tracer = Tracing.begin(EventsTracer.Stage.CACHE_LOAD, eventId);
+            try {
+                isCacheUsed = cache.load((Event) parameter);
+                if (Events.isDebug) {
+                    EventsLog.d(TAG, eventId, "Cached value for event {event} is used = {}", isCacheUsed);
+                }
+            }
+            catch (final Throwable e) {
+                error = e;
+            }
+            finally {
+                Tracing.end(tracer, EventsTracer.Stage.CACHE_LOAD, eventId);
+            }
+        }
+
+        Object flightKey = null;
+        if (null != cache && cache.isSingleFlight() && !isCacheUsed && null == error) {
+            flightKey = cache.startFlight((Event) parameter);
+            if (null == flightKey) {
+                // event will get result of the call in progress
+                return;
+            }
+        }
+
+        Object result = null;
+        try {
+            if (!isCacheUsed && null == error) {
+                // Calling actual handler method
+                final EventsTracer tracer = Tracing.begin(EventsTracer.Stage.INVOKE, eventId);
+                if (null == invoker) {
+                    try {
+                        result = method.invoke(target, parameter);
+                    }
+                    catch (final InvocationTargetException e) {
+                        error = e.getTargetException();
+                    }
+                    catch (final Exception e) {
+                        EventsLog.e(TAG, eventId, "Cannot handle event {event} using method {}: {}", method.getName(), e.getMessage());
+                    }
+                    finally {
+                        Tracing.end(tracer, EventsTracer.Stage.INVOKE, eventId);
+                    }
+                } else {
+                    try {
+                        result = invoker.invoke(target, parameter);
+                    }
+                    catch (final Throwable e) {
+                        error = e;
+                    }
+                    finally {
+                        Tracing.end(tracer, EventsTracer.Stage.INVOKE, eventId);
+                    }
+                }
+            }
+
+            if (null != cache && null != result && cache.isAsync()) {
+                // Storing result in cache after it is sent
+                try {
+                    EventExecutors.executeCacheTask(new SaveCacheRunnable((Event) parameter, result));
+                }
+                catch (final RejectedExecutionException e) {
+                    EventsLog.e(TAG, eventId, "Cannot save result of event {event} to cache: {}", e.getMessage());
+                }
+            } else if (null != cache && null != result) {
+                // Storing result in cache
+                final EventsTracer tracer = Tracing.begin(EventsTracer.Stage.CACHE_SAVE, eventId);
+                try {
+                    cache.save((Event) parameter, result);
+                }
+                catch (final Throwable e) {
+                    error = e;
+                    result = null; // Ignoring result, cache fix is need
+                }
+                finally {
+                    Tracing.end(tracer, EventsTracer.Stage.CACHE_SAVE, eventId);
+                }
+            }
+        }
+        finally {
+            if (null != flightKey) {
+                // waiting events are finished even if handling failed, otherwise the flight key is never released
+                for (final Event waitingEvent : cache.finishFlight(flightKey)) {
+                    sendCallbacks(waitingEvent, result, error);
+                }
+            }
+        }
+
+        if (type.isMethod()) {
+            sendCallbacks((Event) parameter, result, error);
+        } else if (null != error) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    private final class SaveCacheRunnable implements Runnable {
+
+        private final Event event;
+        private final Object result;
+
+        SaveCacheRunnable(final Event event, final Object result) {
+            this.event = event;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            final EventsTracer tracer = Tracing.begin(EventsTracer.Stage.CACHE_SAVE, eventId);
+            try {
+                cache.save(event, result);
+            }
+            catch (final Throwable e) {
+                EventsLog.e(TAG, eventId, "Cannot save result of event {event} to cache: {}", e.getMessage());
+            }
+            finally {
+                Tracing.end(tracer, EventsTracer.Stage.CACHE_SAVE, eventId);
+            }
+        }
+    }
+
+    private static void sendCallbacks(final Event event, final Object result, final Throwable error) {
+        if (null == error) {
+            if (event.isPostponed) {
+                if (null != result) {
+                    EventsDispatcher.sendResult(event, result);
+                }
+            } else {
+                if (null == result) {
+                    EventsDispatcher.sendFinished(event);
+                } else {
+                    EventsDispatcher.sendResultAndFinish(event, result);
+                }
+            }
+        } else {
+            if (event.isPostponed) {
+                EventsDispatcher.sendError(event, error);
+            } else {
+                EventsDispatcher.sendErrorAndFinished(event, error);
+            }
+        }
+    }
+
+
+    enum Type {
+        RECEIVER, RECEIVER_BATCH, METHOD_ASYNC, METHOD_ASYNC_SINGLE, METHOD_UI, CALLBACK;
+
+        boolean isCallback() {
+            return CALLBACK == this;
+        }
+
+        boolean isMethod() {
+            return METHOD_UI == this || isAsync() || isAsyncSingle();
+        }
+
+        boolean isAsync() {
+            return METHOD_ASYNC == this;
+        }
+
+        boolean isAsyncSingle() {
+            return METHOD_ASYNC_SINGLE == this;
+        }
+
+        boolean isUi() {
+            return METHOD_UI == this;
+        }
+
+        boolean isReceiver() {
+            return RECEIVER == this || RECEIVER_BATCH == this;
+        }
+
+        /**
+         * Receiver that gets all waiting events at once as a list
+         */
+        boolean isBatch() {
+            return RECEIVER_BATCH == this;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,345 @@
+package com.azoft.events;
+
+import com.azoft.events.cache.CacheKeyExtractor;
+import com.azoft.events.cache.CacheProvider;
+import com.azoft.events.cache.EventKeyExtractor;
+import com.azoft.events.cache.KeyedCache;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+final class EventHandlerUtils {
+
+    private static final String TAG = EventHandlerUtils.class.getSimpleName();
+
+    // Receivers can be registered from any thread
+    private static final ConcurrentMap<Class<?>, LinkedList<EventHandler>> HANDLERS_CACHE = new ConcurrentHashMap<Class<?>, LinkedList<EventHandler>>();
+
+    private static final List<EventsIndex> INDEXES = new CopyOnWriteArrayList<EventsIndex>();
+
+    private EventHandlerUtils() {
+    }
+
+    static void addIndex(final EventsIndex index) {
+        if (null == index) {
+            throw new NullPointerException("index can't be null");
+        }
+        INDEXES.add(index);
+    }
+
+    /**
+     * Returns list of event handlers for given class. This list will be cached on per-class basis to avoid costly
+     * annotations look up. Returned list should not be modified.
+     * <p/>
+     * If the class is registered from several threads at the same time, methods can be collected more than once,
+     * but only one list will be used for the class.
+     */
+    public static LinkedList<EventHandler> getMethodsFromClass(final Class<?> clazz) {
+        LinkedList<EventHandler> methods = HANDLERS_CACHE.get(clazz);
+
+        if (null == methods) {
+            final long start = System.currentTimeMillis();
+            final LinkedList<EventHandler> collectedMethods = new LinkedList<EventHandler>();
+            collectMethods(clazz, collectedMethods);
+            methods = HANDLERS_CACHE.putIfAbsent(clazz, collectedMethods);
+            if (null == methods) {
+                methods = collectedMethods;
+            }
+            if (Events.isDebug) {
+                final long time = System.currentTimeMillis() - start;
+                EventsLog.d(TAG, "Collecting methods of {} in {} ms", clazz.getName(), time);
+            }
+        }
+
+        return methods;
+    }
+
+    @SuppressWarnings("ObjectAllocationInLoop")
+    private static void collectMethods(final Class<?> clazz, final LinkedList<EventHandler> list) {
+        if (clazz.getName().startsWith("android.") || Object.class == clazz) {
+            return; // Ignoring system classes
+        }
+
+        final ReceiverInfo receiverInfo = findReceiverInfo(clazz);
+        if (null == receiverInfo) {
+            collectAnnotatedMethods(clazz, list);
+        } else {
+            collectIndexedMethods(clazz, receiverInfo, list);
+        }
+
+        if (null != clazz.getSuperclass()) {
+            collectMethods(clazz.getSuperclass(), list);
+        }
+    }
+
+    private static ReceiverInfo findReceiverInfo(final Class<?> clazz) {
+        for (final EventsIndex index : INDEXES) {
+            final ReceiverInfo receiverInfo = index.getReceiverInfo(clazz);
+            if (null != receiverInfo) {
+                return receiverInfo;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("ObjectAllocationInLoop")
+    private static void collectIndexedMethods(final Class<?> clazz, final ReceiverInfo receiverInfo, final LinkedList<EventHandler> list) {
+        for (final HandlerInfo handler : receiverInfo.handlers) {
+            if (Events.isDebug) {
+                EventsLog.d(TAG, "Indexed {} method found: {}#{}", handler.type, clazz.getSimpleName(), handler.methodName);
+            }
+
+            final EventInvoker invoker =
+                    null == receiverInfo.invokers ? null : receiverInfo.invokers.getInvoker(handler.methodName, handler.getParameterType());
+            Method method = null;
+            if (null == invoker) {
+                // Private method, reflection should be used
+                try {
+                    method = clazz.getDeclaredMethod(handler.methodName, handler.getParameterType());
+                } catch (final NoSuchMethodException e) {
+                    throw new RuntimeException("Indexed method " + handler.methodName + " was not found in " + clazz.getName(), e);
+                }
+                method.setAccessible(true);
+            }
+
+            if (handler.type.isReceiver()) {
+                final EventHandler.Type type = handler.batch ? EventHandler.Type.RECEIVER_BATCH : handler.type;
+                for (final int id : handler.ids) {
+                    list.add(new EventHandler(method, invoker, type, getRealIdFromIdOrKey(id, ""), null, handler.priority));
+                }
+                for (final String key : handler.keys) {
+                    list.add(new EventHandler(method, invoker, type, getRealIdFromIdOrKey(0, key), null, handler.priority));
+                }
+            } else {
+                final EventHandler.Type type = handler.singleThreadExecutor ? EventHandler.Type.METHOD_ASYNC_SINGLE : handler.type;
+                list.add(new EventHandler(method, invoker, type, getRealIdFromIdOrKey(handler.ids[0], handler.keys[0]), newHandlerCache(handler.cache, handler.cacheKey, handler.cacheSingleFlight, handler.cacheRefreshAhead),
+                        handler.executor, getSerialLane(handler.serialLane), handler.priority));
+            }
+        }
+    }
+
+    @SuppressWarnings("ObjectAllocationInLoop")
+    private static void collectAnnotatedMethods(final Class<?> clazz, final LinkedList<EventHandler> list) {
+        // Looking for methods annotated as event handlers
+        final Method[] methods = clazz.getDeclaredMethods();
+        if (null != methods) {
+            final EventInvokersHolder invokers = new EventInvokersHolder(clazz);
+            for (final Method m : methods) {
+                if (m.isAnnotationPresent(Events.Receiver.class)) {
+                    if (Events.isDebug) {
+                        EventsLog.d(TAG, "Events.Receiver method detected: {}#{}", clazz.getSimpleName(), m.getName());
+                    }
+                    final boolean isBatch = m.getAnnotation(Events.Receiver.class).batch();
+                    checkMethodParams(m, isBatch ? List.class : Event.class);
+                    m.setAccessible(true);
+
+                    final EventHandler.Type type = isBatch ? EventHandler.Type.RECEIVER_BATCH : EventHandler.Type.RECEIVER;
+                    final Event.Priority priority = m.getAnnotation(Events.Receiver.class).priority();
+                    final int[] ids = m.getAnnotation(Events.Receiver.class).value();
+                    boolean hasData = false;
+                    if (null != ids) {
+                        if (0 < ids.length) {
+                            hasData = true;
+                        }
+                        for (final int id : ids) {
+                            list.add(new EventHandler(m, invokers.getInvoker(m), type, getRealIdFromIdOrKey(id, ""), null, priority));
+                        }
+                    }
+                    final String[] keys = m.getAnnotation(Events.Receiver.class).keys();
+                    if (null != keys) {
+                        if (0 < keys.length) {
+                            if (hasData) {
+                                throw new RuntimeException("You can't set both ids and keys in " + m.getName());
+                            }
+                            hasData = true;
+                        }
+                        for (final String key : keys) {
+                            list.add(new EventHandler(m, invokers.getInvoker(m), type, getRealIdFromIdOrKey(0, key), null, priority));
+                        }
+                    }
+                    if (!hasData) {
+                        throw new RuntimeException("You should set at least one id or key in " + m.getName());
+                    }
+                } else if (m.isAnnotationPresent(Events.AsyncMethod.class)) {
+                    if (Events.isDebug) {
+                        EventsLog.d(TAG, "Events.AsyncMethod method detected: {}#{}", clazz.getSimpleName(), m.getName());
+                    }
+                    checkMethodParams(m, Event.class);
+                    m.setAccessible(true);
+
+                    final int realId =
+                            getRealIdFromIdOrKey(m.getAnnotation(Events.AsyncMethod.class).value(), m.getAnnotation(Events.AsyncMethod.class).key());
+
+                    final boolean singleThreadExecutor = m.getAnnotation(Events.AsyncMethod.class).singleThreadExecutor();
+                    final String executor = m.getAnnotation(Events.AsyncMethod.class).executor();
+                    final String serialLane = getSerialLane(m.getAnnotation(Events.AsyncMethod.class).serialLane());
+                    final Event.Priority priority = m.getAnnotation(Events.AsyncMethod.class).priority();
+
+                    list.add(new EventHandler(m, invokers.getInvoker(m), singleThreadExecutor ? EventHandler.Type.METHOD_ASYNC_SINGLE : EventHandler.Type.METHOD_ASYNC,
+                            realId, getHandlerCache(m), executor, serialLane, priority));
+
+                } else if (m.isAnnotationPresent(Events.UiMethod.class)) {
+                    if (Events.isDebug) {
+                        EventsLog.d(TAG, "Events.UiMethod method detected: {}#{}", clazz.getSimpleName(), m.getName());
+                    }
+                    checkMethodParams(m, Event.class);
+                    m.setAccessible(true);
+
+                    final int realId =
+                            getRealIdFromIdOrKey(m.getAnnotation(Events.UiMethod.class).value(), m.getAnnotation(Events.UiMethod.class).key());
+
+                    list.add(new EventHandler(m, invokers.getInvoker(m), EventHandler.Type.METHOD_UI, realId, getHandlerCache(m),
+                            m.getAnnotation(Events.UiMethod.class).priority()));
+
+                } else if (m.isAnnotationPresent(Events.Callback.class)) {
+                    if (Events.isDebug) {
+                        EventsLog.d(TAG, "Events.Callback method detected: {}#{}", clazz.getSimpleName(), m.getName());
+                    }
+                    checkMethodParams(m, EventCallback.class);
+                    m.setAccessible(true);
+
+                    final int realId =
+                            getRealIdFromIdOrKey(m.getAnnotation(Events.Callback.class).value(), m.getAnnotation(Events.Callback.class).key());
+
+                    list.add(new EventHandler(m, invokers.getInvoker(m), EventHandler.Type.CALLBACK, realId, null,
+                            m.getAnnotation(Events.Callback.class).priority()));
+                }
+
+                //                if (Events.isDebug) EventsLog.d(TAG, "Parsing method: {}#{}", clazz.getName(), m.getName());
+            }
+        }
+    }
+
+    private static int getRealIdFromIdOrKey(final int id, final String key) {
+        if (0 == id && "".equalsIgnoreCase(key)) {
+            throw new IllegalArgumentException("you should set id or key value here");
+        } else if (0 != id && !"".equalsIgnoreCase(key)) {
+            throw new IllegalArgumentException("you should NOT set both id and key values here");
+        } else if (0 == id) {
+            return Utils.convertKeyToId(key);
+        } else {
+            return id;
+        }
+    }
+
+    private static String getSerialLane(final String serialLane) {
+        return "".equals(serialLane) ? null : serialLane;
+    }
+
+    private static HandlerCache getHandlerCache(final Method method) {
+        final Events.Cache an = method.getAnnotation(Events.Cache.class);
+        return null == an ? null : newHandlerCache(an.value(), an.key(), an.singleFlight(), an.refreshAhead());
+    }
+
+    private static HandlerCache newHandlerCache(final Class<? extends CacheProvider> clazz,
+                                                final Class<? extends CacheKeyExtractor> keyClazz,
+                                                final boolean isSingleFlight, final long refreshAhead) {
+        if (null == clazz) {
+            return null;
+        }
+
+        final CacheProvider cacheProvider;
+        try {
+            cacheProvider = clazz.newInstance();
+        } catch (final InstantiationException e) {
+            throw new RuntimeException("Cannot instantiate cache provider: " + clazz.getSimpleName(), e);
+        } catch (final IllegalAccessException e) {
+            throw new RuntimeException("Cannot instantiate cache provider: " + clazz.getSimpleName(), e);
+        }
+
+        CacheKeyExtractor keyExtractor = null;
+        if (EventKeyExtractor.class != keyClazz) {
+            if (!(cacheProvider instanceof KeyedCache)) {
+                throw new RuntimeException("Cache provider " + clazz.getSimpleName() + " doesn't support custom keys");
+            }
+            try {
+                keyExtractor = keyClazz.newInstance();
+            } catch (final InstantiationException e) {
+                throw new RuntimeException("Cannot instantiate cache key extractor: " + keyClazz.getSimpleName(), e);
+            } catch (final IllegalAccessException e) {
+                throw new RuntimeException("Cannot instantiate cache key extractor: " + keyClazz.getSimpleName(), e);
+            }
+            ((KeyedCache) cacheProvider).setKeyExtractor(keyExtractor);
+        }
+        return new HandlerCache(cacheProvider, keyExtractor, isSingleFlight, refreshAhead);
+    }
+
+    /**
+     * Loads generated {@link EventInvokers} of the class only when first handler method is found. Not every class in the
+     * hierarchy has handler methods, so we don't want to look for generated classes for them.
+     */
+    private static class EventInvokersHolder {
+
+        private final Class<?> clazz;
+        private boolean isLoaded;
+        private EventInvokers invokers;
+
+        EventInvokersHolder(final Class<?> clazz) {
+            this.clazz = clazz;
+        }
+
+        EventInvoker getInvoker(final Method method) {
+            if (!isLoaded) {
+                invokers = loadInvokers(clazz);
+                isLoaded = true;
+            }
+            if (null == invokers || Modifier.isPrivate(method.getModifiers())) {
+                return null;
+            }
+            final EventInvoker invoker = invokers.getInvoker(method.getName(), method.getParameterTypes()[0]);
+            if (Events.isDebug) {
+                EventsLog.d(TAG, "Generated invoker for {}#{} is used = {}", clazz.getSimpleName(), method.getName(), null != invoker);
+            }
+            return invoker;
+        }
+
+        private static EventInvokers loadInvokers(final Class<?> clazz) {
+            final Class<?> invokersClass;
+            try {
+                invokersClass = Class.forName(clazz.getName() + EventInvokers.CLASS_SUFFIX, true, clazz.getClassLoader());
+            } catch (final ClassNotFoundException ignored) {
+                // Annotation processor wasn't used for this class. Reflection will be used.
+                return null;
+            }
+
+            try {
+                return (EventInvokers) invokersClass.newInstance();
+            } catch (final InstantiationException e) {
+                throw new RuntimeException("Cannot instantiate event invokers: " + invokersClass.getSimpleName(), e);
+            } catch (final IllegalAccessException e) {
+                throw new RuntimeException("Cannot instantiate event invokers: " + invokersClass.getSimpleName(), e);
+            }
+        }
+    }
+
+    private static void checkMethodParams(final Method method, final Class<?>... params) {
+        final Class<?>[] actualParams = method.getParameterTypes();
+
+        boolean isCorrect = true;
+
+        if (actualParams.length == params.length) {
+            for (int i = 0; i < params.length; i++) {
+                if (actualParams[i] != params[i]) {
+                    isCorrect = false;
+                    break;
+                }
+            }
+        } else {
+            isCorrect = false;
+        }
+
+        if (!isCorrect) {
+            final StringBuilder paramsBuilder = new StringBuilder();
+            for (final Class<?> param : params) {
+                paramsBuilder.append(param.getSimpleName()).append(',');
+            }
+            paramsBuilder.deleteCharAt(paramsBuilder.length() - 1);
+            throw new RuntimeException("Method " + method.getName() + " should have parameters: (" + paramsBuilder.toString() + ")");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.azoft.events;
+
+/**
+ * Calls one event handler method without reflection.
+ * <p/>
+ * Implementations are generated by events-compiler annotation processor, you should not implement it yourself.
+ */
+public interface EventInvoker {
+
+    /**
+     * @return method result or null for void methods
+     */
+    Object invoke(Object target, Object parameter) throws Throwable;
+}
@@ -0,0 +1,17 @@
+package com.azoft.events;
+
+/**
+ * Provides {@link EventInvoker} instances for event handler methods of one receiver class. Implementation for the class
+ * is generated by events-compiler annotation processor in the same package with {@link #CLASS_SUFFIX} added to the class name.
+ * <p/>
+ * Only non private methods can be called by generated code. Private methods are called using reflection.
+ */
+public interface EventInvokers {
+
+    String CLASS_SUFFIX = "$$EventInvokers";
+
+    /**
+     * @return invoker for the method or null if generated code can't call this method
+     */
+    EventInvoker getInvoker(String methodName, Class<?> parameterType);
+}
@@ -12,6 +12,8 @@ class EventReceiver {
     private volatile WeakReference<?> weakReference;
     private volatile boolean isUnregistered;
     private volatile boolean isInPause;
+    // number of events and callbacks waiting for this receiver in the dispatcher queue. Changed from UI thread only
+    private volatile int queueSize;
 
     EventReceiver(final Object target, final String targetId, final boolean keepStrongReference) {
         targetClass = target.getClass();
@@ -77,4 +79,12 @@ class EventReceiver {
     public boolean isInPause() {
         return isInPause;
     }
+
+    int getQueueSize() {
+        return queueSize;
+    }
+
+    void changeQueueSize(final int delta) {
+        queueSize += delta;
+    }
 }
\ No newline at end of file
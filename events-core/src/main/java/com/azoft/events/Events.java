@@ -0,0 +1,379 @@
+package com.azoft.events;
+
+import com.azoft.events.cache.CacheKeyExtractor;
+import com.azoft.events.cache.CacheProvider;
+import com.azoft.events.cache.EventKeyExtractor;
+import com.azoft.events.platform.EventsPlatform;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.Executor;
+
+/**
+ * TODO: improvements
+ * 1. add error handlers?
+ * 2. flag async handler as single task (only one task instance at most)
+ * 3. Register activity/fragment/view receivers: handle recreation
+ * <p/>
+ * TODO: write documentation
+ * 1. Purpose, usage examples
+ * 2. javadocs
+ */
+public final class Events {
+
+    /**
+     * Name of executor for {@link com.azoft.events.cache.AsyncCacheProvider} loads and saves. It has 2 threads by default
+     * and can be replaced with {@link #registerExecutor(String, Executor)}.
+     */
+    public static final String CACHE_EXECUTOR = "events-cache";
+
+    static boolean isDebug = false;
+    static volatile boolean isPooling = false;
+    static volatile EventsMetrics metrics;
+    static volatile EventsTracer tracer;
+
+    private Events() {
+    }
+
+    /**
+     * Sets platform of main thread, clock and log. Android platform is used by default on Android, and JVM platform with
+     * its own main thread is used in plain JVM. Platform should be set before any event is posted or receiver is registered,
+     * otherwise {@link IllegalStateException} is thrown. It is needed only to use another platform type.
+     * <p/>
+     * On Android keep default platform and set application context, so events names are found by ids (if event id is
+     * Android id resource). It can be done at any time:
+     * <pre>
+     * AndroidPlatform.setAppContext(this);
+     * </pre>
+     */
+    public static void setPlatform(final EventsPlatform platform) {
+        EventsPlatform.set(platform);
+        Utils.clearIdNames();
+    }
+
+    public static void setDebug(final boolean isDebug) {
+        Events.isDebug = isDebug;
+    }
+
+    public static void setErrorHandler(final EventsErrorHandler handler) {
+        EventsDispatcher.setEventsErrorHandler(handler);
+    }
+
+    /**
+     * By default every post, callback and dispatch step is delayed for a few milliseconds. In low latency mode they are sent to
+     * main thread without delay, and events and callbacks posted from main thread are handled right away if nothing is waiting
+     * before them. Order of {@link EventCallback.Status#STARTED}, {@link EventCallback.Status#RESULT} and
+     * {@link EventCallback.Status#FINISHED} callbacks is kept in both modes.
+     * <p/>
+     * <b>Note</b>: events posted from main thread are not delayed anymore, so receivers registered right after the post
+     * (for example fragments created after activity onCreate) will not receive them.
+     * <p/>
+     * This mode should be set before any event is posted.
+     */
+    public static void setLowLatencyDispatch(final boolean isLowLatencyDispatch) {
+        EventsDispatcher.setLowLatencyDispatch(isLowLatencyDispatch);
+    }
+
+    /**
+     * If true, events with the only handler marked with {@link AsyncMethod} are sent to the executor right from the posting
+     * thread, without going through main thread. Only callbacks are sent to main thread then. Single events, events posted to one
+     * receiver and events of paused receivers are always posted through main thread.
+     * <p/>
+     * <b>Note</b>: event is routed directly only while its async method is its only registered handler. Routes are updated on
+     * register and unregister, so events with other handlers are posted through main thread as usual.
+     */
+    public static void setDirectAsyncRouting(final boolean isDirectAsyncRouting) {
+        EventsDispatcher.setDirectAsyncRouting(isDirectAsyncRouting);
+    }
+
+    /**
+     * Sets part of the frame that can be used for events delivery in main thread, 0.5 by default. When it is used,
+     * the rest of events are delivered after input and drawing are handled. On API 16+ frame start and frame rate are
+     * tracked, so delivery doesn't cause dropped frames on 90 and 120 Hz displays too.
+     *
+     * @param frameTarget value from 0 (exclusive) to 1
+     */
+    public static void setDispatchBudget(final float frameTarget) {
+        EventsDispatcher.setDispatchBudget(frameTarget);
+    }
+
+    /**
+     * If true, {@link EventCallback} instances and internal queue entries are reused, like {@link android.os.Message}
+     * instances are. Use it for frequent events, together with {@link Event.Builder#dataInt(int)} and other primitive data.
+     * <p/>
+     * <b>Note</b>: callback is returned to the pool right after it was delivered to all callback methods and
+     * {@link EventsErrorHandler}, so it can't be saved and used after callback method returns.
+     */
+    public static void setPooling(final boolean isPooling) {
+        Events.isPooling = isPooling;
+    }
+
+    /**
+     * Starts recording of dispatching metrics, see {@link EventsMetrics}. null stops recording.
+     */
+    public static void setMetrics(final EventsMetrics metrics) {
+        Events.metrics = metrics;
+    }
+
+    /**
+     * Sets sink of log records, see {@link EventsLogSink}. null restores {@link EventsLogSink#PLATFORM}.
+     */
+    public static void setLogSink(final EventsLogSink sink) {
+        EventsLog.setSink(sink);
+    }
+
+    /**
+     * Sets tracer of delivery stages, see {@link EventsTracer}. null stops tracing.
+     */
+    public static void setTracer(final EventsTracer tracer) {
+        Events.tracer = tracer;
+    }
+
+    /**
+     * Limits number of events and callbacks waiting for delivery. By default queue is {@link QueuePolicy#UNBOUNDED}.
+     */
+    public static void setQueuePolicy(final QueuePolicy policy) {
+        EventsDispatcher.setQueuePolicy(policy);
+    }
+
+    /**
+     * @return number of events and callbacks waiting for delivery. Can be called from any thread
+     */
+    public static int getQueueSize() {
+        return EventsDispatcher.getQueueSize();
+    }
+
+    /**
+     * @return number of events and callbacks waiting for delivery to this receiver. Should be called from UI thread
+     */
+    public static int getQueueSize(final Object target) {
+        return EventsDispatcher.getQueueSize(target);
+    }
+
+    /**
+     * Registers executor for methods marked with {@link AsyncMethod} with {@link AsyncMethod#executor()} set to this name.
+     * Executor with "" name is used by default. It is unbounded cached thread pool if not replaced.
+     * <p/>
+     * Executors should be registered before events that use them are posted.
+     */
+    public static void registerExecutor(final String name, final Executor executor) {
+        EventExecutors.register(name, executor);
+    }
+
+    /**
+     * Registers executor that runs at most maxThreads methods at the same time, other methods wait in the queue.
+     * See {@link #registerExecutor(String, Executor)}.
+     */
+    public static void registerBoundedExecutor(final String name, final int maxThreads) {
+        EventExecutors.register(name, EventExecutors.newBoundedExecutor(name, maxThreads));
+    }
+
+    /**
+     * Adds handler methods index generated by events-compiler annotation processor. Receivers found in the index are
+     * registered without annotations look up. Index should be added before receivers are registered.
+     */
+    public static void addIndex(final EventsIndex index) {
+        EventHandlerUtils.addIndex(index);
+    }
+
+    public static void register(final Object receiver) {
+        EventsDispatcher.register(receiver, true, null, null);
+    }
+
+    public static void unregister(final Object receiver) {
+        EventsDispatcher.unregister(receiver);
+    }
+
+    public static Event.Builder create(final String eventId) {
+        return create(Utils.convertKeyToId(eventId));
+    }
+
+    public static Event.Builder create(final int eventId) {
+        return new Event.Builder(eventId);
+    }
+
+    public static Event post(final String eventId) {
+        return post(Utils.convertKeyToId(eventId));
+    }
+
+    public static Event post(final int eventId) {
+        return new Event.Builder(eventId).post();
+    }
+
+    public static Event postTo(final String eventId, final Object receiver) {
+        return postTo(Utils.convertKeyToId(eventId), receiver);
+    }
+
+    public static Event postTo(final int eventId, final Object receiver) {
+        return new Event.Builder(eventId).postTo(receiver);
+    }
+
+    public static Event postSingleEvent(final String eventId) {
+        return postSingleEvent(Utils.convertKeyToId(eventId));
+    }
+
+    public static Event postSingleEvent(final int eventId) {
+        return new Event.Builder(eventId).single().post();
+    }
+
+    /**
+     * Methods marked with this annotation will receive events in the main thread.
+     * <p/>
+     * Unlike {@link com.azoft.events.Events.AsyncMethod} and
+     * {@link com.azoft.events.Events.UiMethod} annotations no callbacks will be send back.
+     * <p/>
+     * <b>Note</b>: for each event id there can be any number of handlers marked with this annotation,
+     * but you can't mix them with other handlers marked as
+     * {@link com.azoft.events.Events.AsyncMethod} or
+     * {@link com.azoft.events.Events.UiMethod}.
+     * <p/>
+     * You <b>can't</b> set both value and key parameters. 0 and "" values are illegal.
+     */
+    @Target({ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Receiver {
+
+        int[] value() default {};
+
+        String[] keys() default {};
+
+        /**
+         * If true, method should have (List&lt;Event&gt;) parameter. All events for this method that are waiting for delivery
+         * are delivered in one call, in order they were posted. So receiver can update UI or database once for many events.
+         */
+        boolean batch() default false;
+
+        /**
+         * Deliveries with higher priority are handled first. See {@link Event.Priority}.
+         */
+        Event.Priority priority() default Event.Priority.NORMAL;
+    }
+
+    /**
+     * Methods marked with this annotation will receive events in <b>background thread</b>.
+     * <p/>
+     * <b>Note</b>: for each event id you can use only one method marked with this annotation. You also cannot use other
+     * handlers marked as {@link com.azoft.events.Events.UiMethod} or
+     * {@link com.azoft.events.Events.Receiver} for this event id.
+     * <p/>
+     * See also {@link com.azoft.events.Events.Callback} annotation.
+     * <p/>
+     * You <b>can't</b> set both value and key parameters. 0 and "" values are illegal.
+     */
+    @Target({ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface AsyncMethod {
+
+        int value() default 0;
+
+        String key() default "";
+
+        /**
+         * If true then SingleThreadExecutor instance will be used for processing this event. Be aware that there is only one instance of executor for all events.
+         * Use {@link #serialLane()} to have separate serial queues for not related events.
+         */
+        boolean singleThreadExecutor() default false;
+
+        /**
+         * Name of executor registered with {@link Events#registerExecutor(String, Executor)}. Default executor is used if
+         * name is not set. Ignored if {@link #singleThreadExecutor()} is true.
+         */
+        String executor() default "";
+
+        /**
+         * Methods with the same serial lane name are executed one by one, in order events were dispatched. Lane doesn't hold
+         * any thread: methods are executed on their {@link #executor()}, and other lanes are not blocked by them.
+         * Ignored if {@link #singleThreadExecutor()} is true.
+         */
+        String serialLane() default "";
+
+        /**
+         * Deliveries with higher priority are handled first. See {@link Event.Priority}.
+         */
+        Event.Priority priority() default Event.Priority.NORMAL;
+    }
+
+    /**
+     * Methods marked with this annotation will receive events in <b>main thread</b>.
+     * <p/>
+     * <b>Note</b>: for each event id you can use only one method marked with this annotation. You also cannot use other
+     * handlers marked as {@link com.azoft.events.Events.AsyncMethod} or
+     * {@link com.azoft.events.Events.Receiver} for this event id.
+     * <p/>
+     * See also {@link com.azoft.events.Events.Callback} annotation.
+     * <p/>
+     * You <b>can't</b> set both value and key parameters. 0 and "" values are illegal.
+     */
+    @Target({ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface UiMethod {
+
+        int value() default 0;
+
+        String key() default "";
+
+        /**
+         * Deliveries with higher priority are handled first. See {@link Event.Priority}.
+         */
+        Event.Priority priority() default Event.Priority.NORMAL;
+    }
+
+    /**
+     * Methods marked with this annotation will receive callbacks from execution method (marked with
+     * {@link com.azoft.events.Events.AsyncMethod} or
+     * {@link com.azoft.events.Events.UiMethod} annotation) with statuses:
+     * <ul>
+     * <li/>{@link EventCallback.Status#STARTED}
+     * <li/>{@link EventCallback.Status#RESULT}<br/>
+     * Methods {@link EventCallback#getResult()} and {@link EventCallback#getResult(int)} can be used
+     * to retrieve the result
+     * <li/>{@link EventCallback.Status#ERROR}<br/>
+     * Method {@link EventCallback#getError()} can be used to retrieve the error.
+     * <li/>{@link EventCallback.Status#FINISHED}
+     * </ul>
+     * <p/>
+     * You <b>can't</b> set both value and key parameters. 0 and "" values are illegal.
+     */
+    @Target({ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Callback {
+
+        int value() default 0;
+
+        String key() default "";
+
+        /**
+         * Deliveries with higher priority are handled first. See {@link Event.Priority}.
+         */
+        Event.Priority priority() default Event.Priority.NORMAL;
+    }
+
+    @Target({ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Cache {
+
+        Class<? extends CacheProvider> value();
+
+        /**
+         * Makes cache keys for events of this method. By default key is made of event id and all data items. Custom key
+         * extractor can be used only with {@link com.azoft.events.cache.KeyedCache} providers.
+         */
+        Class<? extends CacheKeyExtractor> key() default EventKeyExtractor.class;
+
+        /**
+         * If true, method is called once for events with the same cache key that are handled at the same time. Other events
+         * get result or error of that call. If method calls {@link Event#postpone()}, other events get only returned
+         * result and are finished.
+         */
+        boolean singleFlight() default false;
+
+        /**
+         * Time in milliseconds before cached result expires when it is refreshed: result is sent and method is called again,
+         * so often used results are never expired. Cache provider should implement
+         * {@link com.azoft.events.cache.ExpiringCache}. Use with {@link #singleFlight()}, so result is refreshed once.
+         */
+        long refreshAhead() default 0L;
+    }
+}
\ No newline at end of file
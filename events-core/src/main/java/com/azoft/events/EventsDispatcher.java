@@ -0,0 +1,964 @@
+package com.azoft.events;
+
+import com.azoft.events.platform.EventsPlatform;
+import com.azoft.events.platform.MainThreadScheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+@SuppressWarnings({"ProhibitedExceptionThrown", "OverlyComplexClass"})
+final class EventsDispatcher {
+
+    private static final String TAG = EventsDispatcher.class.getSimpleName();
+
+    @SuppressWarnings("CollectionDeclaredAsConcreteClass")
+    private static final LinkedList<EventReceiver> HANDLERS = new LinkedList<EventReceiver>();
+
+    private static final SubscriptionIndex SUBSCRIPTIONS = new SubscriptionIndex();
+
+
+    private static final EventsQueue QUEUE = new EventsQueue();
+
+    // Started events by id, in order they were started. Events are compared by identity, so finished one is removed at once
+    private static final IntMap<Set<Event>> STARTED_EVENTS = new IntMap<Set<Event>>();
+    // Single events in progress, by id and data
+    private static final Map<SingleEventKey, List<Event>> SINGLE_EVENTS = new HashMap<SingleEventKey, List<Event>>();
+    // Conflated events that are posted but not yet handled in main thread. Guarded by itself, as it is used from any thread
+    private static final IntMap<Event> CONFLATED_POSTS = new IntMap<Event>();
+
+    private static final long MESSAGE_DELAY = 10L;
+
+    private static final int MSG_POST_EVENT = 0;
+    private static final int MSG_POST_CALLBACK = 1;
+    private static final int MSG_CANCEL_EVENT = 2;
+    private static final int MSG_DISPATCH = 3;
+    private static final int MSG_CACHE_LOADED = 4;
+
+    private static final MainThreadScheduler MAIN_THREAD = EventsPlatform.get().createMainThreadScheduler(
+            new MainThreadScheduler.MessageHandler() {
+                @Override
+                public void handleMessage(final int what, final Object obj) {
+                    handleMainThreadMessage(what, obj);
+                }
+            });
+
+    private static final FrameBudget FRAME_BUDGET = new FrameBudget(MAIN_THREAD);
+
+    private static EventsErrorHandler sEventsErrorHandler = EventsErrorHandler.DEFAULT;
+
+    private static volatile boolean sIsLowLatencyDispatch;
+    private static volatile boolean sIsDirectAsyncRouting;
+
+    // Whether dispatchEventsInternal is running now. Handlers can post new events from there, so nothing can be handled inline.
+    private static boolean sIsDispatching;
+
+    private EventsDispatcher() {
+    }
+
+    @SuppressWarnings("SuspiciousGetterSetter")
+    static void setEventsErrorHandler(final EventsErrorHandler handler) {
+        sEventsErrorHandler = handler;
+    }
+
+    static void setLowLatencyDispatch(final boolean isLowLatencyDispatch) {
+        sIsLowLatencyDispatch = isLowLatencyDispatch;
+    }
+
+    static void setDirectAsyncRouting(final boolean isDirectAsyncRouting) {
+        sIsDirectAsyncRouting = isDirectAsyncRouting;
+    }
+
+    static void setDispatchBudget(final float frameTarget) {
+        FRAME_BUDGET.setTarget(frameTarget);
+    }
+
+    static void setQueuePolicy(final QueuePolicy policy) {
+        QUEUE.setPolicy(policy);
+    }
+
+    static int getQueueSize() {
+        return QUEUE.size();
+    }
+
+    /**
+     * This method should always be called from UI thread
+     */
+    static int getParkedSize() {
+        return QUEUE.getParkedSize();
+    }
+
+    /**
+     * This method should always be called from UI thread
+     */
+    static int getParkedReceivers() {
+        return QUEUE.getParkedReceivers();
+    }
+
+    /**
+     * This method should always be called from UI thread
+     *
+     * @return number of events waiting in parked set of paused receiver
+     */
+    static int getParkedSize(final Object target) {
+        if (null == target) {
+            throw new NullPointerException("Target cannot be null");
+        }
+        for (final EventReceiver receiver : HANDLERS) {
+            //noinspection ObjectEquality
+            if (target == receiver.getTarget()) {
+                return QUEUE.getParkedSize(receiver);
+            }
+        }
+        return 0;
+    }
+
+    static int getQueueSize(final Object target) {
+        if (null == target) {
+            throw new NullPointerException("Target cannot be null");
+        }
+        for (final EventReceiver receiver : HANDLERS) {
+            //noinspection ObjectEquality
+            if (target == receiver.getTarget()) {
+                return receiver.getQueueSize();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * This method will always be called from UI thread
+     */
+    private static void handleMainThreadMessage(final int what, final Object obj) {
+        //noinspection SwitchStatementWithoutDefaultBranch
+        switch (what) {
+            case MSG_POST_EVENT:
+                final Event event = (Event) obj;
+                if (event.isConflated) {
+                    removeConflatedPost(event);
+                }
+                postEventInternal(event);
+                break;
+            case MSG_POST_CALLBACK:
+                // callbacks posted together are chained
+                EventCallback callback = (EventCallback) obj;
+                while (null != callback) {
+                    final EventCallback next = callback.next;
+                    callback.next = null;
+                    postCallbackInternal(callback);
+                    callback = next;
+                }
+                break;
+            case MSG_CANCEL_EVENT:
+                cancelEventInternal((Event) obj);
+                break;
+            case MSG_DISPATCH:
+                dispatchEventsInternal();
+                break;
+            case MSG_CACHE_LOADED:
+                final QueuedEvent loadedEvent = (QueuedEvent) obj;
+                if (((Event) loadedEvent.event).isCanceled) {
+                    // it was not in the queue while cache was loaded, so cancel couldn't remove it
+                    loadedEvent.recycle();
+                    break;
+                }
+                // UI method is called in the usual order, after paused receiver is resumed
+                QUEUE.add(loadedEvent);
+                dispatchEvents();
+                break;
+        }
+    }
+
+    /**
+     * Asks main thread to handle this message. In low latency mode message is sent without delay or even handled right away
+     * if we are on UI thread and there are no earlier messages that should be handled first.
+     */
+    private static void sendToMainThread(final int what, final Object obj) {
+        if (!sIsLowLatencyDispatch) {
+            MAIN_THREAD.sendMessage(what, obj, MESSAGE_DELAY);
+        } else if (canHandleInline()) {
+            handleMainThreadMessage(what, obj);
+        } else {
+            MAIN_THREAD.sendMessage(what, obj, 0L);
+        }
+    }
+
+    private static boolean canHandleInline() {
+        // Pending messages should be handled first to keep STARTED, RESULT and FINISHED callbacks order
+        return !sIsDispatching && MAIN_THREAD.isMainThread() &&
+                !MAIN_THREAD.hasMessages(MSG_POST_EVENT) && !MAIN_THREAD.hasMessages(MSG_POST_CALLBACK) &&
+                !MAIN_THREAD.hasMessages(MSG_CANCEL_EVENT);
+    }
+
+    @SuppressWarnings({"MethodWithMoreThanThreeNegations", "OverlyComplexMethod", "OverlyLongMethod", "VariableNotUsedInsideIf"})
+    static void register(final Object target, final boolean keepStrongReference, final String targetId, final Boolean markAsResumed) {
+        if (null == target) {
+            throw new NullPointerException("Target cannot be null");
+        }
+        if (keepStrongReference && null != targetId) {
+            throw new IllegalArgumentException("strong reference with targetId is not allowed");
+        }
+
+        EventReceiver eventReceiver = null;
+        for (final EventReceiver receiver : HANDLERS) {
+            if (Objects.equalsTargets(targetId, receiver.getTarget())) {
+                throw new RuntimeException("Events receiver " + Utils.getClassName(target) + " already registered");
+            }
+            if (Objects.equalsTargetIds(targetId, receiver.getTargetId())) {
+                if (null != eventReceiver) {
+                    throw new IllegalStateException("double receivers with same targetId found");
+                }
+                if (!receiver.isInPause()) {
+                    throw new IllegalStateException("old receiver was not in pause and try to register again!");
+                }
+                eventReceiver = receiver;
+            }
+        }
+
+        final EventReceiver receiver;
+        if (null == eventReceiver) {
+            receiver = new EventReceiver(target, targetId, keepStrongReference);
+            HANDLERS.addFirst(receiver);
+            SUBSCRIPTIONS.add(receiver);
+            if (Events.isDebug) {
+                EventsLog.d(TAG, "Found new receiver: {}", Utils.getClassName(target));
+            }
+        } else {
+            receiver = eventReceiver;
+            receiver.setTarget(target);
+            if (Events.isDebug) {
+                EventsLog.d(TAG, "Found old receiver: {}", Utils.getClassName(target));
+            }
+        }
+        if (null != markAsResumed) {
+            if (markAsResumed) {
+                receiver.markAsResumed();
+                if (QUEUE.unpark(receiver)) {
+                    dispatchEvents();
+                }
+                if (Events.isDebug) {
+                    EventsLog.d(TAG, "Receiver marked as resumed!: {}", Utils.getClassName(target));
+                }
+            } else {
+                receiver.markAsPaused();
+            }
+        }
+        notifyStickyEvents(receiver);
+    }
+
+    static void pause(final Object target, final String targetId) {
+        if (null == target || null == targetId) {
+            throw new NullPointerException("Target and targetId cannot be null");
+        }
+
+        boolean notFound = true;
+
+        for (final EventReceiver receiver : HANDLERS) {
+            if (Objects.equalsTargets(receiver.getTarget(), target) || Objects.equalsTargetIds(targetId, receiver.getTargetId())) {
+                if (receiver.isInPause()) {
+                    // already in pause. nothing to do
+                    return;
+                }
+                receiver.markAsPaused();
+                notFound = false;
+                break;
+            }
+        }
+
+        if (notFound) {
+            throw new RuntimeException("Events receiver " + Utils.getClassName(target) + " was not registered");
+        }
+
+        if (Events.isDebug) {
+            EventsLog.d(TAG, "Events receiver paused: {}", Utils.getClassName(target));
+        }
+    }
+
+    static void resume(final Object target) {
+        if (null == target) {
+            throw new NullPointerException("Target cannot be null");
+        }
+
+        EventReceiver targetReceiver = null;
+        for (final EventReceiver receiver : HANDLERS) {
+            if (Objects.equals(receiver.getTarget(), target)) {
+                if (!receiver.isInPause()) {
+                    // already in resume. nothing to do
+                    return;
+                }
+                receiver.markAsResumed();
+                targetReceiver = receiver;
+                break;
+            }
+        }
+
+        if (null == targetReceiver) {
+            throw new RuntimeException("Events receiver " + Utils.getClassName(target) + " was not registered");
+        }
+        QUEUE.unpark(targetReceiver);
+        dispatchEvents();
+
+        if (Events.isDebug) {
+            EventsLog.d(TAG, "Events receiver resumed: {}", Utils.getClassName(target));
+        }
+    }
+
+    static void unregister(final Object target) {
+        if (null == target) {
+            throw new NullPointerException("Target cannot be null");
+        }
+
+        boolean isUnregistered = false;
+
+        for (final Iterator<EventReceiver> iterator = HANDLERS.iterator(); iterator.hasNext(); ) {
+            final EventReceiver receiver = iterator.next();
+            if (Objects.equals(receiver.getTarget(), target)) {
+                receiver.markAsUnregistered();
+                iterator.remove();
+                SUBSCRIPTIONS.remove(receiver);
+                QUEUE.removeReceiver(receiver);
+                isUnregistered = true;
+                break;
+            }
+        }
+
+        if (!isUnregistered) {
+            throw new RuntimeException("Events receiver " + Utils.getClassName(target) + " was not registered");
+        } else if (Events.isDebug) {
+            EventsLog.d(TAG, "Events receiver unregistered: {}", Utils.getClassName(target));
+        }
+    }
+
+    /**
+     * This method should always be called from UI thread
+     */
+    static void postEventTo(final Event event, final Object receiver) {
+        if (null == receiver) {
+            throw new NullPointerException("receiver can't be null");
+        }
+        if (!MAIN_THREAD.isMainThread()) {
+            throw new IllegalStateException("This method can only be called on MainThread");
+        }
+        EventReceiver singleReceiver = null;
+        for (final EventReceiver eventReceiver : HANDLERS) {
+            if (Objects.equals(receiver, eventReceiver.getTarget())) {
+                singleReceiver = eventReceiver;
+                break;
+            }
+        }
+        if (null == singleReceiver) {
+            throw new IllegalArgumentException("Receiver wasn't found. Have you registered it before?");
+        }
+        event.eventReceiver = singleReceiver;
+        postEvent(event);
+    }
+
+    static void postEvent(final Event event) {
+        if (event.isConflated) {
+            if (conflatePost(event)) {
+                return;
+            }
+        } else if (sIsDirectAsyncRouting && postEventToExecutor(event)) {
+            return;
+        }
+
+        // Asking main thread to handle this event
+        sendToMainThread(MSG_POST_EVENT, event);
+    }
+
+    /**
+     * Replaces data of the same event that is already posted, but not yet handled in main thread. So there is only
+     * one message for frequent events. This method can be called from any thread.
+     *
+     * @return false if event should be posted
+     */
+    private static boolean conflatePost(final Event event) {
+        synchronized (CONFLATED_POSTS) {
+            final Event postedEvent = CONFLATED_POSTS.get(event.getId());
+            if (null == postedEvent) {
+                CONFLATED_POSTS.put(event.getId(), event);
+                return false;
+            }
+            //noinspection ObjectEquality
+            if (postedEvent.eventReceiver != event.eventReceiver) {
+                // posted for other receiver, both of them should be handled
+                return false;
+            }
+            postedEvent.replaceData(event);
+            event.isFinished = true;
+        }
+
+        if (Events.isDebug) {
+            EventsLog.d(TAG, event.getId(), "Event is conflated with posted one: {event}");
+        }
+        return true;
+    }
+
+    private static void removeConflatedPost(final Event event) {
+        synchronized (CONFLATED_POSTS) {
+            //noinspection ObjectEquality
+            if (CONFLATED_POSTS.get(event.getId()) == event) {
+                CONFLATED_POSTS.remove(event.getId());
+            }
+        }
+    }
+
+    /**
+     * Sends event right to the executor if its only handler is async method, so there is no main thread round trip.
+     * Only callbacks are sent through main thread. This method can be called from any thread.
+     *
+     * @return false if event should be posted through main thread
+     */
+    private static boolean postEventToExecutor(final Event event) {
+        if (event.isSingleEvent || null != event.eventReceiver) {
+            // single events and events for one receiver are checked in main thread
+            return false;
+        }
+
+        final SubscriptionIndex.Subscription subscription = SUBSCRIPTIONS.getAsyncRoute(event.getId());
+        if (null == subscription || subscription.receiver.isInPause() || subscription.receiver.isUnregistered()) {
+            // paused receivers keep their events in the queue
+            return false;
+        }
+
+        if (Events.isDebug) {
+            EventsLog.d(TAG, event.getId(), "Event is sent to executor directly: {event} / type = {}", subscription.method.getType());
+        }
+        event.handlerType = subscription.method.getType();
+        // STARTED is sent before handler is executed, so it will be handled in main thread before any other callback
+        postCallback(EventCallback.started(event));
+        executeAsync(QueuedEvent.create(subscription.receiver, subscription.method, event));
+        return true;
+    }
+
+    /**
+     * This method will always be called from UI thread
+     */
+    @SuppressWarnings("VariableNotUsedInsideIf")
+    private static void postEventInternal(final Event event) {
+        final EventsTracer tracer = Tracing.begin(EventsTracer.Stage.POST, event.getId());
+        try {
+            postEventToReceivers(event);
+        }
+        finally {
+            Tracing.end(tracer, EventsTracer.Stage.POST, event.getId());
+        }
+    }
+
+    private static void postEventToReceivers(final Event event) {
+        final int eventId = event.getId();
+
+        if (Events.isDebug) {
+            EventsLog.d(TAG, eventId, "Internal event post: {event}");
+        }
+        if (event.isSingleEvent) {
+            final SingleEventKey key = new SingleEventKey(event);
+            // kept for removal, as event data can be changed by the caller later
+            event.singleEventKey = key;
+            List<Event> sameEvents = SINGLE_EVENTS.get(key);
+            if (null != sameEvents) {
+                // events with the same id and data, usually there is only one
+                for (final Event singleEvent : sameEvents) {
+                    if (null == event.eventReceiver && null == singleEvent.eventReceiver) {
+                        // this is the same event for all receivers. so we should skip it.
+                        return;
+                    }
+                    //noinspection StatementWithEmptyBody
+                    if (null != event.eventReceiver && null != singleEvent.eventReceiver) {
+
+                        // this is single event. we should check if this event has the same receiver
+                        if (Objects.equalsTargets(event.eventReceiver.getTarget(), singleEvent.eventReceiver.getTarget()) ||
+                                Objects.equalsTargetIds(event.eventReceiver.getTargetId(), singleEvent.eventReceiver.getTargetId())) {
+                            // receiver is the same. so skip
+                            return;
+                        }
+                        // this is an other receiver, so we should start this event again
+                    } else {
+                        // one event is for all item and an other is for single... we can't skip this event
+                    }
+                }
+            } else {
+                sameEvents = new ArrayList<Event>(1);
+                SINGLE_EVENTS.put(key, sameEvents);
+            }
+            sameEvents.add(event);
+        }
+
+        final List<SubscriptionIndex.Subscription> subscriptions = SUBSCRIPTIONS.getHandlers(eventId);
+        for (int i = 0, size = subscriptions.size(); i < size; ++i) {
+            final EventReceiver receiver = subscriptions.get(i).receiver;
+            final EventHandler method = subscriptions.get(i).method;
+
+            if (method.getType().isReceiver() && null != event.eventReceiver) {
+                if (!(Objects.equalsTargets(event.eventReceiver.getTarget(), receiver.getTarget()) ||
+                        Objects.equalsTargetIds(event.eventReceiver.getTargetId(), receiver.getTargetId()))) {
+                    continue;
+                }
+            }
+
+            if (null == event.handlerType) {
+                event.handlerType = method.getType();
+            } else if (event.handlerType.isMethod()) {
+                throw new RuntimeException("Event of type " + event.handlerType + " can have only one handler");
+            } else if (method.getType().isMethod()) {
+                throw new RuntimeException("Event of type " + event.handlerType + " can't have handlers of type " + method.getType());
+            }
+
+            if (event.isConflated && conflateQueuedEvent(receiver, method, event)) {
+                continue;
+            }
+
+            if (event.isCanceled) {
+                if (Events.isDebug) {
+                    EventsLog.d(TAG, eventId, "Canceled event tried to scheduled: {event} / type = {}", method.getType());
+                }
+            } else {
+                if (null != event.handlerType) {
+                    if (event.handlerType.isMethod()) {
+                        postCallbackInternal(EventCallback.started(event));
+                    }
+                }
+                QUEUE.add(QueuedEvent.create(receiver, method, event));
+
+                if (Events.isDebug) {
+                    EventsLog.d(TAG, eventId, "Event scheduled: {event} / type = {}", method.getType());
+                }
+            }
+        }
+
+        if (null != event.handlerType) {
+            dispatchEvents();
+        }
+    }
+
+    /**
+     * Replaces the same event that is waiting in the queue for this handler.
+     *
+     * @return false if there is no such event and this one should be queued
+     */
+    private static boolean conflateQueuedEvent(final EventReceiver receiver, final EventHandler method, final Event event) {
+        final QueuedEvent queuedEvent = QUEUE.findConflated(receiver, method, event);
+        if (null == queuedEvent) {
+            return false;
+        }
+
+        if (Events.isDebug) {
+            EventsLog.d(TAG, event.getId(), "Event is conflated with queued one: {event} / type = {}", method.getType());
+        }
+        if (method.getType().isMethod()) {
+            // STARTED callback was already sent for queued event, so only its data is replaced
+            ((Event) queuedEvent.event).replaceData(event);
+            event.isFinished = true;
+        } else {
+            QUEUE.replaceEvent(queuedEvent, event);
+        }
+        return true;
+    }
+
+    private static void postCallback(final EventCallback callback) {
+        postCallbacks(callback, null);
+    }
+
+    /**
+     * @param nextCallback callback that should be handled right after the first one or null
+     */
+    private static void postCallbacks(final EventCallback callback, final EventCallback nextCallback) {
+        final EventHandler.Type handlerType = callback.getEvent().handlerType;
+        if (null == handlerType || !handlerType.isMethod()) {
+            throw new RuntimeException("Cannot sent " + callback.getStatus() + " callback for event of type " + handlerType);
+        }
+
+        // Asking main thread to handle this callback. Callbacks are chained, so there is no array for them
+        callback.next = nextCallback;
+        sendToMainThread(MSG_POST_CALLBACK, callback);
+    }
+
+    /**
+     * This method will always be called from UI thread
+     */
+    private static void postCallbackInternal(final EventCallback callback) {
+        final int eventId = callback.getId();
+        final EventsTracer tracer = Tracing.begin(EventsTracer.Stage.CALLBACK, eventId);
+        try {
+            postCallbackToReceivers(callback);
+        }
+        finally {
+            // queued deliveries retain callback, so it is returned to the pool when all of them are finished
+            callback.release();
+            Tracing.end(tracer, EventsTracer.Stage.CALLBACK, eventId);
+        }
+    }
+
+    private static void postCallbackToReceivers(final EventCallback callback) {
+        final int eventId = callback.getId();
+
+        if (Events.isDebug) {
+            EventsLog.d(TAG, eventId, "Internal callback post: {event} / status = {}", callback.getStatus());
+        }
+
+        final Event event = callback.getEvent();
+        if (event.isFinished) {
+            if (Events.isDebug) {
+                EventsLog.d(TAG, eventId, "Event {event} was already finished, ignoring {} callback", callback.getStatus());
+            }
+            return;
+        }
+
+        if (callback.isStarted()) {
+            // Saving started event
+            Set<Event> events = STARTED_EVENTS.get(eventId);
+            if (null == events) {
+                STARTED_EVENTS.put(eventId, events = new LinkedHashSet<Event>());
+            }
+            events.add(event);
+        } else if (callback.isFinished()) {
+            // Removing finished event
+            final Set<Event> events = STARTED_EVENTS.get(eventId);
+            if (null != events) {
+                events.remove(event);
+                if (events.isEmpty()) {
+                    STARTED_EVENTS.remove(eventId);
+                }
+            }
+
+            final SingleEventKey key = event.singleEventKey;
+            if (null != key) {
+                event.singleEventKey = null;
+                final List<Event> sameEvents = SINGLE_EVENTS.get(key);
+                if (null != sameEvents) {
+                    sameEvents.remove(event);
+                    if (sameEvents.isEmpty()) {
+                        SINGLE_EVENTS.remove(key);
+                    }
+                }
+            }
+
+            if (event.isFinished) {
+                return;
+            } else {
+                event.isFinished = true;
+            }
+        }
+
+        final List<SubscriptionIndex.Subscription> subscriptions = SUBSCRIPTIONS.getCallbacks(eventId);
+        int deliveries = 0;
+        for (int i = 0, size = subscriptions.size(); i < size; ++i) {
+            final EventReceiver receiver = subscriptions.get(i).receiver;
+            if (null != event.eventReceiver && !Objects.equals(event.eventReceiver, receiver)) {
+                continue;
+            }
+
+            QUEUE.add(QueuedEvent.create(receiver, subscriptions.get(i).method, callback));
+            ++deliveries;
+
+            if (Events.isDebug) {
+                EventsLog.d(TAG, eventId, "Callback scheduled: {event}");
+            }
+        }
+
+        final EventsMetrics metrics = Events.metrics;
+        if (null != metrics) {
+            metrics.recordCallback(eventId, deliveries);
+        }
+
+        if (callback.isError()) {
+            QUEUE.add(QueuedEvent.createErrorHandler(callback));
+        }
+
+        dispatchEvents();
+    }
+
+    static void sendResult(final Event event, final Object[] result) {
+        postCallback(EventCallback.result(event, result));
+    }
+
+    static void sendResult(final Event event, final Object result) {
+        postCallback(EventCallback.result(event, result));
+    }
+
+    /**
+     * Will add result and finish in one loop. needed to prevent wrong result, started, finish order
+     */
+    static void sendResultAndFinish(final Event event, final Object result) {
+        postCallbacks(EventCallback.result(event, result), EventCallback.finished(event));
+    }
+
+    static void sendError(final Event event, final Throwable error) {
+        postCallback(EventCallback.error(event, error));
+    }
+
+    static void sendFinished(final Event event) {
+        postCallback(EventCallback.finished(event));
+    }
+
+    static void sendErrorAndFinished(final Event event, final Throwable error) {
+        postCallbacks(EventCallback.error(event, error), EventCallback.finished(event));
+    }
+
+    private static void notifyStickyEvents(final EventReceiver receiver) {
+        if (null == receiver.getMethods()) {
+            return;
+        }
+
+        for (final EventHandler method : receiver.getMethods()) {
+            if (!method.getType().isCallback()) {
+                continue;
+            }
+
+            final int eventId = method.getEventId();
+
+            final Set<Event> events = STARTED_EVENTS.get(eventId);
+            if (null != events) {
+                for (final Event event : events) {
+                    if (null != event.eventReceiver && !Objects.equals(event.eventReceiver, receiver)) {
+                        continue;
+                    }
+
+                    final EventCallback callback = EventCallback.started(event);
+                    QUEUE.add(QueuedEvent.create(receiver, method, callback));
+                    callback.release();
+                    if (Events.isDebug) {
+                        EventsLog.d(TAG, eventId, "Callback of type STARTED is resent: {event}");
+                    }
+                }
+            }
+        }
+
+        dispatchEvents();
+    }
+
+    static void cancelEvent(final Event event) {
+        sendToMainThread(MSG_CANCEL_EVENT, event);
+    }
+
+    /**
+     * This method will always be called from UI thread
+     */
+    private static void cancelEventInternal(final Event event) {
+        if (!event.isCanceled && !event.isFinished) {
+            QUEUE.remove(event);
+
+            if (Events.isDebug) {
+                EventsLog.d(TAG, event.getId(), "Canceling event: {event}");
+            }
+            event.isCanceled = true;
+            if (event.isSingleEvent && null == event.handlerType) {
+                // some single events are not processed
+                return;
+            }
+            postCallback(EventCallback.finished(event));
+        }
+
+        // Note, that we have a gap between cancelEvent method and cancelEventInternal method where
+        // isCanceled is actually set to true. So some callbacks including FINISHED can be sent during this gap.
+        // So we should have mechanism to prevent repeated FINISHED events - see flag Event#isFinished.
+    }
+
+    private static void dispatchEvents() {
+        if (!MAIN_THREAD.hasMessages(MSG_DISPATCH)) {
+            // Dispatching is never done inline: it calls handlers, which can post new events from there
+            MAIN_THREAD.sendMessage(MSG_DISPATCH, null, sIsLowLatencyDispatch ? 0L : MESSAGE_DELAY);
+        }
+    }
+
+    /**
+     * This method will always be called from UI thread
+     */
+    private static void dispatchEventsInternal() {
+        sIsDispatching = true;
+        final EventsTracer tracer = Tracing.begin(EventsTracer.Stage.DISPATCH, 0);
+        try {
+            dispatchQueuedEvents();
+        }
+        finally {
+            sIsDispatching = false;
+            Tracing.end(tracer, EventsTracer.Stage.DISPATCH, 0);
+        }
+    }
+
+    private static void dispatchQueuedEvents() {
+        if (Events.isDebug) {
+            EventsLog.d(TAG, "Dispatching started");
+        }
+
+        final long started = System.nanoTime();
+        final long deadline = FRAME_BUDGET.startSlice();
+
+        QueuedEvent queuedEvent;
+        while (null != (queuedEvent = QUEUE.poll())) {
+            if (queuedEvent.isErrorHandling) {
+                // error handling don't have receiver, but other should have
+                final EventCallback callback = (EventCallback) queuedEvent.event;
+                if (!callback.isErrorHandled() && null != sEventsErrorHandler) {
+                    sEventsErrorHandler.onError(callback);
+                }
+                queuedEvent.recycle();
+            } else {
+                if (queuedEvent.receiver.isUnregistered()) {
+                    queuedEvent.recycle();
+                    continue;
+                }
+                if (queuedEvent.receiver.isInPause()) {
+                    // it will be returned back to ready events on resume
+                    QUEUE.park(queuedEvent);
+                    continue;
+                }
+
+                if (Events.isDebug) {
+                    EventsLog.d(TAG, queuedEvent.method.getEventId(), "Dispatching: {} event = {event}", queuedEvent.method.getType());
+                }
+
+                final EventsMetrics metrics = Events.metrics;
+                if (null != metrics && 0L != queuedEvent.queuedNanos && !queuedEvent.isCacheLoaded) {
+                    metrics.recordWait(queuedEvent.method, System.nanoTime() - queuedEvent.queuedNanos);
+                }
+
+                final EventHandler.Type methodType = queuedEvent.method.getType();
+                if (methodType.isAsync() || methodType.isAsyncSingle()) {
+                    executeAsync(queuedEvent);
+                } else if (methodType.isUi() && !queuedEvent.isCacheLoaded && queuedEvent.method.hasAsyncCache()) {
+                    executeCacheLoad(queuedEvent);
+                } else if (methodType.isBatch()) {
+                    executeQueuedEvent(queuedEvent, QUEUE.pollBatch(queuedEvent));
+                    queuedEvent.recycle();
+                } else {
+                    executeQueuedEvent(queuedEvent, queuedEvent.event);
+                    queuedEvent.recycle();
+                }
+
+                if (FrameBudget.isOver(deadline)) {
+                    if (Events.isDebug) {
+                        EventsLog.d(TAG, "Dispatching: time in main thread = {}us, scheduling next dispatch cycle",
+                                (System.nanoTime() - started) / 1000L);
+                    }
+                    // next cycle is sent to the end of the message queue, so input and drawing are handled first
+                    dispatchEvents();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * STARTED callback was already sent, so if method can't be executed, event is finished with the error.
+     */
+    private static void executeAsync(final QueuedEvent queuedEvent) {
+        try {
+            EventExecutors.execute(queuedEvent.method, new AsyncRunnable(queuedEvent));
+        }
+        catch (final IllegalStateException e) {
+            failAsync(queuedEvent, e);
+        }
+        catch (final RejectedExecutionException e) {
+            failAsync(queuedEvent, e);
+        }
+    }
+
+    /**
+     * Cache executor can be replaced with bounded or shut down one, then UI method event is finished with the error too.
+     */
+    private static void executeCacheLoad(final QueuedEvent queuedEvent) {
+        try {
+            EventExecutors.executeCacheTask(new CacheLoadRunnable(queuedEvent));
+        }
+        catch (final RejectedExecutionException e) {
+            failAsync(queuedEvent, e);
+        }
+    }
+
+    private static void failAsync(final QueuedEvent queuedEvent, final RuntimeException error) {
+        final Event event = (Event) queuedEvent.event;
+        queuedEvent.recycle();
+        sendErrorAndFinished(event, error);
+    }
+
+    /**
+     * @param parameter event or callback, or list of events for batch receiver
+     */
+    private static void executeQueuedEvent(final QueuedEvent queuedEvent, final Object parameter) {
+        if (queuedEvent.receiver.isUnregistered() || queuedEvent.receiver.isInPause()) {
+            if (Events.isDebug) {
+                EventsLog.d(TAG, queuedEvent.method.getEventId(), "Dispatching: executeQueuedEvent = isUnregistered or isInPause: {event}");
+            }
+            return; // Receiver was unregistered or paused
+        }
+        final Object target = queuedEvent.receiver.getTarget();
+
+        if (null == target) {
+            if (Events.isDebug) {
+                EventsLog.d(TAG, queuedEvent.method.getEventId(), "Dispatching: executeQueuedEvent = target == null: {event}");
+            }
+/*
+            todo check if this code is needed
+
+            EventsLog.e(TAG, 0, "Event receiver {} was not correctly unregistered", queuedEvent.receiver.getTargetClass().getName());
+            queuedEvent.receiver.markAsUnregistered();
+*/
+            return;
+        }
+
+        final EventsMetrics metrics = Events.metrics;
+        if (null == metrics) {
+            queuedEvent.method.handle(target, parameter, queuedEvent.isCacheLoaded);
+            return;
+        }
+
+        final long started = System.nanoTime();
+        try {
+            queuedEvent.method.handle(target, parameter, queuedEvent.isCacheLoaded);
+        }
+        finally {
+            metrics.recordHandle(queuedEvent.method, System.nanoTime() - started);
+        }
+    }
+
+    private static class AsyncRunnable implements EventExecutors.HandlerTask {
+
+        private final QueuedEvent queuedEvent;
+
+        AsyncRunnable(final QueuedEvent queuedEvent) {
+            this.queuedEvent = queuedEvent;
+        }
+
+        @Override
+        public void run() {
+            executeQueuedEvent(queuedEvent, queuedEvent.event);
+            queuedEvent.recycle();
+        }
+
+        @Override
+        public void onRejected(final RejectedExecutionException e) {
+            failAsync(queuedEvent, e);
+        }
+    }
+
+    /**
+     * Loads cached result of UI method. Method is sent back to main thread if it should be called and event was not
+     * canceled meanwhile.
+     */
+    private static class CacheLoadRunnable implements Runnable {
+
+        private final QueuedEvent queuedEvent;
+
+        CacheLoadRunnable(final QueuedEvent queuedEvent) {
+            this.queuedEvent = queuedEvent;
+        }
+
+        @Override
+        public void run() {
+            final Event event = (Event) queuedEvent.event;
+            if (!event.isCanceled && queuedEvent.method.loadAsyncCache(event) && !event.isCanceled) {
+                queuedEvent.isCacheLoaded = true;
+                sendToMainThread(MSG_CACHE_LOADED, queuedEvent);
+            } else {
+                queuedEvent.recycle();
+            }
+        }
+    }
+}
\ No newline at end of file
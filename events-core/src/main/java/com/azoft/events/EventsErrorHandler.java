@@ -1,13 +1,11 @@
 package com.azoft.events;
 
-import android.util.Log;
-
 public interface EventsErrorHandler {
 
     EventsErrorHandler DEFAULT = new EventsErrorHandler() {
         @Override
         public void onError(EventCallback callback) {
-            Log.e("EventsErrorHandler", "Error during event: " + Utils.getName(callback.getId()), callback.getError());
+            EventsLog.e("EventsErrorHandler", callback.getId(), callback.getError(), "Error during event: {event}");
         }
     };
 
@@ -0,0 +1,15 @@
+package com.azoft.events;
+
+/**
+ * Handler methods metadata collected at build time. Receivers found in the index are registered without annotations look up.
+ * <p/>
+ * Implementation is generated by events-compiler annotation processor when {@code events.index} option is set to the full
+ * name of the index class. Generated index should be added with {@link Events#addIndex(EventsIndex)}.
+ */
+public interface EventsIndex {
+
+    /**
+     * @return handler methods declared in the class (not its superclasses) or null if the class is not indexed
+     */
+    ReceiverInfo getReceiverInfo(Class<?> receiverClass);
+}
@@ -0,0 +1,48 @@
+package com.azoft.events;
+
+import com.azoft.events.platform.EventsPlatform;
+
+/**
+ * Creates log records and passes them to the sink, {@link EventsLogSink#PLATFORM} by default.
+ * <p/>
+ * Debug calls should be wrapped with {@code if (Events.isDebug)}, so varargs array and boxed arguments are not created in
+ * release builds. Messages are formatted lazily by the record, see {@link EventsLogRecord}.
+ */
+final class EventsLog {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static volatile EventsLogSink sink = EventsLogSink.PLATFORM;
+
+    private EventsLog() {
+    }
+
+    static void setSink(final EventsLogSink sink) {
+        EventsLog.sink = null == sink ? EventsLogSink.PLATFORM : sink;
+    }
+
+    static void d(final String tag, final String format, final Object... args) {
+        log(EventsLogRecord.Level.DEBUG, tag, 0, format, args, null);
+    }
+
+    static void d(final String tag, final int eventId, final String format, final Object... args) {
+        log(EventsLogRecord.Level.DEBUG, tag, eventId, format, args, null);
+    }
+
+    static void e(final String tag, final int eventId, final String format, final Object... args) {
+        log(EventsLogRecord.Level.ERROR, tag, eventId, format, args, null);
+    }
+
+    static void e(final String tag, final int eventId, final Throwable error, final String format) {
+        log(EventsLogRecord.Level.ERROR, tag, eventId, format, NO_ARGS, error);
+    }
+
+    private static void log(final EventsLogRecord.Level level, final String tag, final int eventId, final String format,
+                            final Object[] args, final Throwable error) {
+        if (EventsLogRecord.Level.DEBUG == level && !Events.isDebug) {
+            return;
+        }
+        final long time = EventsPlatform.get().getClock().uptimeMillis();
+        sink.log(new EventsLogRecord(level, time, tag, eventId, format, args, error));
+    }
+}
@@ -0,0 +1,74 @@
+package com.azoft.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps last records in a ring buffer, so recent dispatching can be looked at after a problem, for example from debugger
+ * or bug report. Records are also passed to the next sink if it is set:
+ * <pre>
+ * Events.setDebug(true);
+ * Events.setLogSink(new EventsLogBuffer(256, EventsLogSink.PLATFORM));
+ * </pre>
+ */
+public class EventsLogBuffer implements EventsLogSink {
+
+    private final EventsLogRecord[] records;
+    private final EventsLogSink next;
+
+    private int nextIndex;
+    private int size;
+
+    public EventsLogBuffer(final int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param next sink that gets every record too, can be null
+     */
+    public EventsLogBuffer(final int capacity, final EventsLogSink next) {
+        if (capacity <= 0) {
+            throw new RuntimeException("capacity should be positive: " + capacity);
+        }
+        records = new EventsLogRecord[capacity];
+        this.next = next;
+    }
+
+    @Override
+    public void log(final EventsLogRecord record) {
+        synchronized (records) {
+            records[nextIndex] = record;
+            nextIndex = (nextIndex + 1) % records.length;
+            if (size < records.length) {
+                ++size;
+            }
+        }
+        if (null != next) {
+            next.log(record);
+        }
+    }
+
+    /**
+     * @return kept records, oldest first
+     */
+    public List<EventsLogRecord> getRecords() {
+        synchronized (records) {
+            final List<EventsLogRecord> result = new ArrayList<EventsLogRecord>(size);
+            final int first = (nextIndex - size + records.length) % records.length;
+            for (int i = 0; i < size; ++i) {
+                result.add(records[(first + i) % records.length]);
+            }
+            return result;
+        }
+    }
+
+    public void clear() {
+        synchronized (records) {
+            for (int i = 0; i < records.length; ++i) {
+                records[i] = null;
+            }
+            nextIndex = 0;
+            size = 0;
+        }
+    }
+}
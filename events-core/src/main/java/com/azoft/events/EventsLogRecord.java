@@ -0,0 +1,108 @@
+package com.azoft.events;
+
+/**
+ * Log record of the library. Message is formatted on first {@link #getMessage()}, so sinks that don't need text don't
+ * pay for it: {} in the format is replaced with next argument, {event} with the name of the event.
+ */
+public final class EventsLogRecord {
+
+    public enum Level {
+        DEBUG, ERROR
+    }
+
+    private static final String ARG = "{}";
+    private static final String EVENT = "{event}";
+
+    private final Level level;
+    private final long timeMillis;
+    private final String tag;
+    private final int eventId;
+    private final String format;
+    private final Object[] args;
+    private final Throwable error;
+
+    private String message;
+
+    EventsLogRecord(final Level level, final long timeMillis, final String tag, final int eventId, final String format,
+                    final Object[] args, final Throwable error) {
+        this.level = level;
+        this.timeMillis = timeMillis;
+        this.tag = tag;
+        this.eventId = eventId;
+        this.format = format;
+        this.args = args;
+        this.error = error;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @return time of the platform clock, see {@link com.azoft.events.platform.Clock#uptimeMillis()}
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * @return id of the event, or 0 if record is not about one event
+     */
+    public int getEventId() {
+        return eventId;
+    }
+
+    /**
+     * @return name of the event (resource name, or string key for events posted by key), or null if there is no event
+     */
+    public String getEventName() {
+        return 0 == eventId ? null : Utils.getName(eventId);
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public String getMessage() {
+        String result = message;
+        if (null == result) {
+            result = format();
+            message = result;
+        }
+        return result;
+    }
+
+    private String format() {
+        final StringBuilder builder = new StringBuilder(format.length() + 32);
+        int argIndex = 0;
+        int start = 0;
+        for (; ; ) {
+            final int index = format.indexOf('{', start);
+            if (index < 0) {
+                break;
+            }
+            builder.append(format, start, index);
+            if (format.startsWith(ARG, index) && argIndex < args.length) {
+                builder.append(args[argIndex++]);
+                start = index + ARG.length();
+            } else if (format.startsWith(EVENT, index)) {
+                builder.append(getEventName());
+                start = index + EVENT.length();
+            } else {
+                builder.append('{');
+                start = index + 1;
+            }
+        }
+        builder.append(format, start, format.length());
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return timeMillis + " " + level + " " + tag + ": " + getMessage();
+    }
+}
@@ -0,0 +1,31 @@
+package com.azoft.events;
+
+import com.azoft.events.platform.EventsPlatform;
+import com.azoft.events.platform.Logger;
+
+/**
+ * Receives log records of the library. Debug records are created only if {@link Events#setDebug(boolean)} is on, so in
+ * release builds nothing is formatted or allocated for them. Error records are always created.
+ * <p/>
+ * Sink is set with {@link Events#setLogSink(EventsLogSink)}. {@link #PLATFORM} writes records to the log of the platform,
+ * {@link EventsLogBuffer} keeps recent records in memory.
+ */
+public interface EventsLogSink {
+
+    EventsLogSink PLATFORM = new EventsLogSink() {
+        @Override
+        public void log(final EventsLogRecord record) {
+            final Logger logger = EventsPlatform.get().getLogger();
+            if (EventsLogRecord.Level.ERROR == record.getLevel()) {
+                logger.e(record.getTag(), record.getMessage(), record.getError());
+            } else {
+                logger.d(record.getTag(), record.getMessage());
+            }
+        }
+    };
+
+    /**
+     * Called in the thread that logs, main thread or executor thread.
+     */
+    void log(EventsLogRecord record);
+}
@@ -0,0 +1,164 @@
+package com.azoft.events;
+
+import com.azoft.events.platform.EventsPlatform;
+import com.azoft.events.platform.MainThreadScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records metrics of events dispatching for each event id and handler type: time events wait in the queue, time of handler
+ * methods execution and number of callbacks deliveries. Snapshots also have queue size, events waiting for paused receivers
+ * and state of executors.
+ * <p/>
+ * Metrics are recorded after they are set with {@link Events#setMetrics(EventsMetrics)}. Recording doesn't take locks and
+ * allocates memory only when event id is seen for the first time. Every event id and handler type take a few kilobytes.
+ * <pre>
+ * final EventsMetrics metrics = new EventsMetrics();
+ * Events.setMetrics(metrics);
+ * metrics.startExport(new MetricsExporter() {
+ *     public void export(final MetricsSnapshot snapshot) {
+ *         telemetry.send(snapshot);
+ *     }
+ * }, 60000L);
+ * </pre>
+ */
+public final class EventsMetrics {
+
+    private static final int MSG_EXPORT = 0;
+
+    private static final EventHandler.Type[] HANDLER_TYPES = EventHandler.Type.values();
+
+    // Event id -> recorders by handler type. Replaced with new copy when event id is added, so it is read without lock
+    private volatile IntMap<AtomicReferenceArray<HandlerRecorder>> recorders = new IntMap<AtomicReferenceArray<HandlerRecorder>>();
+
+    // Guarded by this
+    private MainThreadScheduler mainThread;
+    private volatile MetricsExporter exporter;
+    private volatile long exportPeriodMillis;
+
+    /**
+     * Should be called from UI thread.
+     *
+     * @return metrics recorded since metrics were set or since the last export
+     */
+    public MetricsSnapshot snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Starts sending metrics to exporter in main thread every period. Every export has metrics recorded since the previous
+     * one. Only one exporter is used, new exporter replaces the old one.
+     */
+    public synchronized void startExport(final MetricsExporter exporter, final long periodMillis) {
+        if (null == exporter) {
+            throw new NullPointerException("exporter can't be null");
+        }
+        if (0L >= periodMillis) {
+            throw new IllegalArgumentException("periodMillis should be positive");
+        }
+
+        if (null == mainThread) {
+            mainThread = EventsPlatform.get().createMainThreadScheduler(new MainThreadScheduler.MessageHandler() {
+                @Override
+                public void handleMessage(final int what, final Object obj) {
+                    export();
+                }
+            });
+        }
+        this.exporter = exporter;
+        exportPeriodMillis = periodMillis;
+        if (!mainThread.hasMessages(MSG_EXPORT)) {
+            mainThread.sendMessage(MSG_EXPORT, null, periodMillis);
+        }
+    }
+
+    public void stopExport() {
+        exporter = null;
+    }
+
+    void recordWait(final EventHandler method, final long nanos) {
+        getRecorder(method.getEventId(), method.getType()).waitTime.record(nanos);
+    }
+
+    void recordHandle(final EventHandler method, final long nanos) {
+        getRecorder(method.getEventId(), method.getType()).handleTime.record(nanos);
+    }
+
+    /**
+     * @param deliveries number of callback methods the callback was queued for
+     */
+    void recordCallback(final int eventId, final int deliveries) {
+        final HandlerRecorder recorder = getRecorder(eventId, EventHandler.Type.CALLBACK);
+        recorder.callbacks.incrementAndGet();
+        recorder.callbackDeliveries.addAndGet(deliveries);
+    }
+
+    private void export() {
+        final MetricsExporter currentExporter = exporter;
+        if (null == currentExporter) {
+            return;
+        }
+        currentExporter.export(snapshot(true));
+        mainThread.sendMessage(MSG_EXPORT, null, exportPeriodMillis);
+    }
+
+    private MetricsSnapshot snapshot(final boolean isReset) {
+        final IntMap<AtomicReferenceArray<HandlerRecorder>> currentRecorders = recorders;
+        final List<MetricsSnapshot.HandlerStats> handlers = new ArrayList<MetricsSnapshot.HandlerStats>();
+        for (int i = 0, size = currentRecorders.size(); i < size; ++i) {
+            final int eventId = currentRecorders.keyAt(i);
+            final AtomicReferenceArray<HandlerRecorder> typeRecorders = currentRecorders.valueAt(i);
+            for (int type = 0; type < HANDLER_TYPES.length; ++type) {
+                final HandlerRecorder recorder = typeRecorders.get(type);
+                if (null != recorder) {
+                    handlers.add(recorder.snapshot(eventId, HANDLER_TYPES[type], isReset));
+                }
+            }
+        }
+
+        return new MetricsSnapshot(System.currentTimeMillis(), EventsDispatcher.getQueueSize(), EventsDispatcher.getParkedSize(),
+                EventsDispatcher.getParkedReceivers(), handlers, EventExecutors.getStats());
+    }
+
+    private HandlerRecorder getRecorder(final int eventId, final EventHandler.Type type) {
+        AtomicReferenceArray<HandlerRecorder> typeRecorders = recorders.get(eventId);
+        if (null == typeRecorders) {
+            typeRecorders = addEventId(eventId);
+        }
+
+        final HandlerRecorder recorder = typeRecorders.get(type.ordinal());
+        if (null != recorder) {
+            return recorder;
+        }
+        final HandlerRecorder newRecorder = new HandlerRecorder();
+        return typeRecorders.compareAndSet(type.ordinal(), null, newRecorder) ? newRecorder : typeRecorders.get(type.ordinal());
+    }
+
+    private synchronized AtomicReferenceArray<HandlerRecorder> addEventId(final int eventId) {
+        AtomicReferenceArray<HandlerRecorder> typeRecorders = recorders.get(eventId);
+        if (null == typeRecorders) {
+            typeRecorders = new AtomicReferenceArray<HandlerRecorder>(HANDLER_TYPES.length);
+            final IntMap<AtomicReferenceArray<HandlerRecorder>> newRecorders = recorders.clone();
+            newRecorders.put(eventId, typeRecorders);
+            recorders = newRecorders;
+        }
+        return typeRecorders;
+    }
+
+    private static final class HandlerRecorder {
+
+        final Histogram waitTime = new Histogram();
+        final Histogram handleTime = new Histogram();
+        final AtomicLong callbacks = new AtomicLong();
+        final AtomicLong callbackDeliveries = new AtomicLong();
+
+        MetricsSnapshot.HandlerStats snapshot(final int eventId, final EventHandler.Type type, final boolean isReset) {
+            return new MetricsSnapshot.HandlerStats(eventId, Utils.getName(eventId), type.name(), waitTime.snapshot(isReset),
+                    handleTime.snapshot(isReset), isReset ? callbacks.getAndSet(0L) : callbacks.get(),
+                    isReset ? callbackDeliveries.getAndSet(0L) : callbackDeliveries.get());
+        }
+    }
+}
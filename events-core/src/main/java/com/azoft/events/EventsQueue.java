@@ -0,0 +1,434 @@
+package com.azoft.events;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+/**
+ * Events and callbacks waiting for delivery. Keeps queue within {@link QueuePolicy} limits.
+ * <p/>
+ * New events are added to the ready list of their {@link Event.Priority}, lists with higher priority are polled first.
+ * Events of paused receivers are moved from there to receiver's own parked list when they are polled, and are returned
+ * back to the head of their ready lists when receiver is resumed. So paused receivers don't slow down dispatching of other
+ * events. Every parked event is older than any ready one with the same priority, so order of events for each receiver
+ * and handler is kept.
+ * <p/>
+ * Removed ready events are only marked as removed and skipped later, so events are removed without looking through the
+ * queue. Removed parked events are removed from the parked set right away, as paused receiver can get many new events
+ * before it is resumed.
+ * <p/>
+ * This class is not thread safe and should be used from UI thread only. Queue sizes can be read from any thread.
+ */
+final class EventsQueue {
+
+    private static final String TAG = EventsQueue.class.getSimpleName();
+
+    // Ready events by priority
+    private final LinkedList<QueuedEvent>[] ready = newReadyLists();
+    // Paused receiver -> its events in the order they were queued
+    private final Map<EventReceiver, LinkedHashSet<QueuedEvent>> parked = new LinkedHashMap<EventReceiver, LinkedHashSet<QueuedEvent>>();
+    // Event -> its waiting deliveries, so canceled event is removed right away
+    private final Map<Event, List<QueuedEvent>> deliveries = new IdentityHashMap<Event, List<QueuedEvent>>();
+    // Receiver -> its waiting events for batch receiver methods, in order they were queued
+    private final Map<EventReceiver, LinkedList<QueuedEvent>> batches = new HashMap<EventReceiver, LinkedList<QueuedEvent>>();
+    // Event id -> waiting deliveries of conflated events, so they are found without looking through the whole queue
+    private final IntMap<List<QueuedEvent>> conflated = new IntMap<List<QueuedEvent>>();
+
+    private volatile int size;
+    private int parkedSize;
+
+    private volatile QueuePolicy policy = QueuePolicy.UNBOUNDED;
+
+    void setPolicy(final QueuePolicy policy) {
+        if (null == policy) {
+            throw new NullPointerException("policy can't be null");
+        }
+        this.policy = policy;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return number of events waiting for paused receivers
+     */
+    int getParkedSize() {
+        return parkedSize;
+    }
+
+    /**
+     * @return number of paused receivers that have waiting events
+     */
+    int getParkedReceivers() {
+        return parked.size();
+    }
+
+    void add(final QueuedEvent queuedEvent) {
+        if (queuedEvent.isDroppable()) {
+            final QueuePolicy currentPolicy = policy;
+            if (0 < currentPolicy.maxReceiverSize && currentPolicy.maxReceiverSize <= queuedEvent.receiver.getQueueSize()) {
+                if (!handleOverflow(currentPolicy.overflow, queuedEvent, queuedEvent.receiver)) {
+                    queuedEvent.recycle();
+                    return;
+                }
+            } else if (0 < currentPolicy.maxSize && currentPolicy.maxSize <= size) {
+                if (!handleOverflow(currentPolicy.overflow, queuedEvent, null)) {
+                    queuedEvent.recycle();
+                    return;
+                }
+            }
+        }
+
+        ready[queuedEvent.priority.ordinal()].add(queuedEvent);
+        onAdded(queuedEvent);
+    }
+
+    /**
+     * Removes the next ready event or callback with the highest priority from the queue.
+     *
+     * @return null if there is nothing to deliver
+     */
+    QueuedEvent poll() {
+        for (final LinkedList<QueuedEvent> priorityEvents : ready) {
+            QueuedEvent queuedEvent;
+            while (null != (queuedEvent = priorityEvents.poll())) {
+                if (queuedEvent.isQueued) {
+                    onRemoved(queuedEvent);
+                    return queuedEvent;
+                }
+                queuedEvent.recycle();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all waiting events for the batch receiver method of polled event.
+     *
+     * @return events for one delivery, starting with the polled one
+     */
+    List<Event> pollBatch(final QueuedEvent polled) {
+        final List<Event> events = new ArrayList<Event>();
+        events.add((Event) polled.event);
+
+        final LinkedList<QueuedEvent> receiverEvents = batches.get(polled.receiver);
+        if (null != receiverEvents) {
+            for (final QueuedEvent queuedEvent : new ArrayList<QueuedEvent>(receiverEvents)) {
+                //noinspection ObjectEquality
+                if (polled.method == queuedEvent.method) {
+                    events.add((Event) queuedEvent.event);
+                    onRemoved(queuedEvent);
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Returns polled event back to the queue, it will be delivered after receiver is resumed. Polled events that are not
+     * parked should be recycled after delivery.
+     */
+    void park(final QueuedEvent queuedEvent) {
+        LinkedHashSet<QueuedEvent> receiverEvents = parked.get(queuedEvent.receiver);
+        if (null == receiverEvents) {
+            receiverEvents = new LinkedHashSet<QueuedEvent>();
+            parked.put(queuedEvent.receiver, receiverEvents);
+        }
+        receiverEvents.add(queuedEvent);
+        queuedEvent.isParked = true;
+        ++parkedSize;
+        onAdded(queuedEvent);
+    }
+
+    /**
+     * @return number of events waiting for this receiver in its parked set
+     */
+    int getParkedSize(final EventReceiver receiver) {
+        final LinkedHashSet<QueuedEvent> receiverEvents = parked.get(receiver);
+        return null == receiverEvents ? 0 : receiverEvents.size();
+    }
+
+    /**
+     * Makes parked events of resumed receiver ready for delivery.
+     *
+     * @return true if there are such events
+     */
+    boolean unpark(final EventReceiver receiver) {
+        final LinkedHashSet<QueuedEvent> receiverEvents = parked.remove(receiver);
+        if (null == receiverEvents) {
+            return false;
+        }
+        parkedSize -= receiverEvents.size();
+        // parked events are older than ready ones, so they are returned to the head of the queue
+        final List<QueuedEvent> queuedEvents = new ArrayList<QueuedEvent>(receiverEvents);
+        for (final ListIterator<QueuedEvent> iterator = queuedEvents.listIterator(queuedEvents.size()); iterator.hasPrevious(); ) {
+            final QueuedEvent queuedEvent = iterator.previous();
+            queuedEvent.isParked = false;
+            ready[queuedEvent.priority.ordinal()].addFirst(queuedEvent);
+        }
+        return true;
+    }
+
+    /**
+     * Removes parked events of unregistered receiver. Its ready events are skipped when they are polled.
+     */
+    void removeReceiver(final EventReceiver receiver) {
+        final LinkedHashSet<QueuedEvent> receiverEvents = parked.remove(receiver);
+        if (null != receiverEvents) {
+            parkedSize -= receiverEvents.size();
+            for (final QueuedEvent queuedEvent : receiverEvents) {
+                queuedEvent.isParked = false;
+                onRemoved(queuedEvent);
+                queuedEvent.recycle();
+            }
+        }
+    }
+
+    /**
+     * Removes all waiting deliveries of this event. Its callbacks are not removed.
+     */
+    void remove(final Event event) {
+        final List<QueuedEvent> eventDeliveries = deliveries.get(event);
+        if (null != eventDeliveries) {
+            for (final QueuedEvent queuedEvent : new ArrayList<QueuedEvent>(eventDeliveries)) {
+                onRemoved(queuedEvent);
+            }
+        }
+    }
+
+    /**
+     * Replaces event of the waiting delivery.
+     */
+    void replaceEvent(final QueuedEvent queuedEvent, final Object event) {
+        unindex(queuedEvent);
+        queuedEvent.setEvent(event);
+        index(queuedEvent);
+    }
+
+    /**
+     * @return waiting delivery of conflated event with the same id and target receiver to this handler, or null
+     */
+    QueuedEvent findConflated(final EventReceiver receiver, final EventHandler method, final Event event) {
+        final List<QueuedEvent> queuedEvents = conflated.get(event.getId());
+        if (null != queuedEvents) {
+            for (final QueuedEvent queuedEvent : queuedEvents) {
+                final Event queued = (Event) queuedEvent.event;
+                //noinspection ObjectEquality
+                if (receiver == queuedEvent.receiver && method == queuedEvent.method && queued.eventReceiver == event.eventReceiver) {
+                    return queuedEvent;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes room for new event or callback.
+     *
+     * @param receiver receiver which queue is full or null if the whole queue is full
+     * @return true if new event or callback should be added to the queue
+     */
+    private boolean handleOverflow(final QueuePolicy.Overflow overflow, final QueuedEvent queuedEvent, final EventReceiver receiver) {
+        if (Events.isDebug) {
+            EventsLog.d(TAG, queuedEvent.method.getEventId(), "Queue is full, {}: {event} / receiver = {}", overflow,
+                    null == receiver ? "all" : Utils.getClassName(receiver.getTarget()));
+        }
+
+        switch (overflow) {
+            case COALESCE:
+                final QueuedEvent waitingEvent = findOldestDroppable(queuedEvent.receiver, queuedEvent);
+                if (null != waitingEvent) {
+                    replaceEvent(waitingEvent, queuedEvent.event);
+                    return false;
+                }
+                return dropOldest(receiver);
+            case DROP_OLDEST:
+                return dropOldest(receiver);
+            case REJECT:
+                final Event event = queuedEvent.event instanceof Event ? (Event) queuedEvent.event : ((EventCallback) queuedEvent.event).getEvent();
+                final EventsQueueOverflowException error = new EventsQueueOverflowException("Queue is full, " +
+                        (queuedEvent.method.getType().isCallback() ? "callback" : "event") + " was rejected: " + Utils.getName(event.getId()));
+                final EventCallback callback = EventCallback.error(event, error);
+                final QueuedEvent errorHandler = QueuedEvent.createErrorHandler(callback);
+                callback.release();
+                ready[errorHandler.priority.ordinal()].add(errorHandler);
+                onAdded(errorHandler);
+                return false;
+            case DROP_NEWEST:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Drops the oldest event or callback that can be dropped. If there is no one, new event is added anyway.
+     */
+    private boolean dropOldest(final EventReceiver receiver) {
+        final QueuedEvent waitingEvent = findOldestDroppable(receiver, null);
+        if (null != waitingEvent) {
+            onRemoved(waitingEvent);
+        }
+        return true;
+    }
+
+    /**
+     * Parked events are checked first as they are older than ready ones, then events with lower priority are checked.
+     *
+     * @param receiver    receiver of the event or null for any receiver
+     * @param coalescable event that should be coalescable with found one or null for any event
+     */
+    private QueuedEvent findOldestDroppable(final EventReceiver receiver, final QueuedEvent coalescable) {
+        if (null == receiver) {
+            for (final LinkedHashSet<QueuedEvent> receiverEvents : parked.values()) {
+                final QueuedEvent queuedEvent = findOldestDroppable(receiverEvents, null, coalescable);
+                if (null != queuedEvent) {
+                    return queuedEvent;
+                }
+            }
+        } else {
+            final LinkedHashSet<QueuedEvent> receiverEvents = parked.get(receiver);
+            if (null != receiverEvents) {
+                final QueuedEvent queuedEvent = findOldestDroppable(receiverEvents, receiver, coalescable);
+                if (null != queuedEvent) {
+                    return queuedEvent;
+                }
+            }
+        }
+        for (int i = ready.length - 1; 0 <= i; --i) {
+            final QueuedEvent queuedEvent = findOldestDroppable(ready[i], receiver, coalescable);
+            if (null != queuedEvent) {
+                return queuedEvent;
+            }
+        }
+        return null;
+    }
+
+    private static QueuedEvent findOldestDroppable(final Iterable<QueuedEvent> queuedEvents, final EventReceiver receiver,
+                                                   final QueuedEvent coalescable) {
+        for (final QueuedEvent queuedEvent : queuedEvents) {
+            //noinspection ObjectEquality
+            if (queuedEvent.isQueued && queuedEvent.isDroppable() && (null == receiver || receiver == queuedEvent.receiver) &&
+                    (null == coalescable || queuedEvent.isCoalescableWith(coalescable))) {
+                return queuedEvent;
+            }
+        }
+        return null;
+    }
+
+    private static LinkedList<QueuedEvent>[] newReadyLists() {
+        // generic array can't be created, so raw one is used
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final LinkedList<QueuedEvent>[] lists = new LinkedList[Event.Priority.values().length];
+        for (int i = 0; i < lists.length; ++i) {
+            lists[i] = new LinkedList<QueuedEvent>();
+        }
+        return lists;
+    }
+
+    private void onAdded(final QueuedEvent queuedEvent) {
+        queuedEvent.isQueued = true;
+        ++size;
+        if (null != queuedEvent.receiver) {
+            queuedEvent.receiver.changeQueueSize(1);
+        }
+        index(queuedEvent);
+    }
+
+    /**
+     * Parked event is removed from its parked set and recycled, as nothing else references it. Ready event is recycled when
+     * it is polled, or by the caller if it is the polled one.
+     */
+    private void onRemoved(final QueuedEvent queuedEvent) {
+        queuedEvent.isQueued = false;
+        --size;
+        if (null != queuedEvent.receiver) {
+            queuedEvent.receiver.changeQueueSize(-1);
+        }
+        unindex(queuedEvent);
+
+        if (queuedEvent.isParked) {
+            queuedEvent.isParked = false;
+            --parkedSize;
+            final LinkedHashSet<QueuedEvent> receiverEvents = parked.get(queuedEvent.receiver);
+            receiverEvents.remove(queuedEvent);
+            if (receiverEvents.isEmpty()) {
+                parked.remove(queuedEvent.receiver);
+            }
+            queuedEvent.recycle();
+        }
+    }
+
+    private void index(final QueuedEvent queuedEvent) {
+        if (queuedEvent.isErrorHandling || !(queuedEvent.event instanceof Event)) {
+            return;
+        }
+
+        final Event event = (Event) queuedEvent.event;
+        List<QueuedEvent> eventDeliveries = deliveries.get(event);
+        if (null == eventDeliveries) {
+            eventDeliveries = new ArrayList<QueuedEvent>(1);
+            deliveries.put(event, eventDeliveries);
+        }
+        eventDeliveries.add(queuedEvent);
+
+        if (queuedEvent.method.getType().isBatch()) {
+            LinkedList<QueuedEvent> receiverEvents = batches.get(queuedEvent.receiver);
+            if (null == receiverEvents) {
+                receiverEvents = new LinkedList<QueuedEvent>();
+                batches.put(queuedEvent.receiver, receiverEvents);
+            }
+            receiverEvents.add(queuedEvent);
+        }
+
+        if (event.isConflated) {
+            List<QueuedEvent> queuedEvents = conflated.get(event.getId());
+            if (null == queuedEvents) {
+                queuedEvents = new ArrayList<QueuedEvent>();
+                conflated.put(event.getId(), queuedEvents);
+            }
+            queuedEvents.add(queuedEvent);
+        }
+    }
+
+    private void unindex(final QueuedEvent queuedEvent) {
+        if (queuedEvent.isErrorHandling || !(queuedEvent.event instanceof Event)) {
+            return;
+        }
+
+        final Event event = (Event) queuedEvent.event;
+        final List<QueuedEvent> eventDeliveries = deliveries.get(event);
+        if (null != eventDeliveries) {
+            eventDeliveries.remove(queuedEvent);
+            if (eventDeliveries.isEmpty()) {
+                deliveries.remove(event);
+            }
+        }
+
+        if (queuedEvent.method.getType().isBatch()) {
+            final LinkedList<QueuedEvent> receiverEvents = batches.get(queuedEvent.receiver);
+            if (null != receiverEvents) {
+                receiverEvents.remove(queuedEvent);
+                if (receiverEvents.isEmpty()) {
+                    batches.remove(queuedEvent.receiver);
+                }
+            }
+        }
+
+        if (event.isConflated) {
+            final List<QueuedEvent> queuedEvents = conflated.get(event.getId());
+            if (null != queuedEvents) {
+                queuedEvents.remove(queuedEvent);
+                if (queuedEvents.isEmpty()) {
+                    conflated.remove(event.getId());
+                }
+            }
+        }
+    }
+}
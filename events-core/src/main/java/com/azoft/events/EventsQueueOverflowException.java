@@ -0,0 +1,13 @@
+package com.azoft.events;
+
+/**
+ * Sent to {@link EventsErrorHandler} when event or callback was rejected because of {@link QueuePolicy}.
+ */
+public class EventsQueueOverflowException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public EventsQueueOverflowException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,43 @@
+package com.azoft.events;
+
+/**
+ * Traces stages of events delivery, so it is seen where time goes: to posting, to waiting in the queue, to cache or to
+ * handler methods. Stages are nested in each thread: every {@link #begin(Stage, int)} is followed by
+ * {@link #end(Stage, int)} of the same stage in the same thread. Stages are traced in main thread and in executor threads.
+ * <p/>
+ * Tracer is set with {@link Events#setTracer(EventsTracer)}. SystraceTracer of events library writes systrace sections on
+ * Android, {@link InMemoryTracer} keeps spans in memory for tests.
+ */
+public interface EventsTracer {
+
+    enum Stage {
+        /**
+         * Event is queued for its handlers, in main thread.
+         */
+        POST,
+        /**
+         * Queued events and callbacks are delivered, in main thread. Event id is 0, as many events are delivered.
+         */
+        DISPATCH,
+        /**
+         * Cached result is looked up, in main thread or executor thread.
+         */
+        CACHE_LOAD,
+        /**
+         * Handler method is called, in main thread or executor thread.
+         */
+        INVOKE,
+        /**
+         * Result is saved to cache, in main thread or executor thread.
+         */
+        CACHE_SAVE,
+        /**
+         * Callback is queued for callback methods, in main thread.
+         */
+        CALLBACK
+    }
+
+    void begin(Stage stage, int eventId);
+
+    void end(Stage stage, int eventId);
+}
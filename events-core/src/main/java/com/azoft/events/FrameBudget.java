@@ -0,0 +1,131 @@
+package com.azoft.events;
+
+import com.azoft.events.platform.MainThreadScheduler;
+
+/**
+ * Decides how long dispatcher can deliver events in main thread before it gives way to input and drawing.
+ * <p/>
+ * If platform draws frames (Android API 16+), they are tracked with {@link MainThreadScheduler#postFrameCallback} while
+ * events are dispatched, and each dispatch slice ends when the target part of the current frame is used. Frame interval is
+ * measured, so 90 and 120 Hz displays get shorter slices. Otherwise every slice gets the target part of a 60 fps frame.
+ * <p/>
+ * This class is not thread safe and should be used from UI thread only. Target can be set from any thread.
+ */
+final class FrameBudget {
+
+    private static final float DEFAULT_TARGET = 0.5f;
+
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 16666667L;
+    // slice can't be shorter, so events are delivered even if frame is already late
+    private static final long MIN_SLICE_NANOS = 1000000L;
+
+    private volatile float target = DEFAULT_TARGET;
+
+    private long frameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+    // start of the last frame in System.nanoTime() time base or 0 if it is unknown
+    private long frameStartNanos;
+
+    private final MainThreadScheduler mainThread;
+    private final FrameTracker frameTracker = new FrameTracker();
+
+    FrameBudget(final MainThreadScheduler mainThread) {
+        this.mainThread = mainThread;
+    }
+
+    /**
+     * @param target part of the frame that can be used for dispatching, from 0 (exclusive) to 1
+     */
+    void setTarget(final float target) {
+        if (!(0f < target && 1f >= target)) {
+            throw new IllegalArgumentException("target should be in (0, 1] range");
+        }
+        this.target = target;
+    }
+
+    /**
+     * @return time in System.nanoTime() time base when this dispatch slice should be finished
+     */
+    long startSlice() {
+        final long now = System.nanoTime();
+        frameTracker.track();
+
+        final long budget = (long) (frameIntervalNanos * target);
+        final long remaining;
+        if (0L != frameStartNanos && now - frameStartNanos < frameIntervalNanos) {
+            remaining = frameStartNanos + budget - now;
+        } else {
+            // no frame is drawn now or it is unknown when it was started
+            remaining = budget;
+        }
+        return now + Math.max(remaining, MIN_SLICE_NANOS);
+    }
+
+    static boolean isOver(final long deadlineNanos) {
+        return 0L < System.nanoTime() - deadlineNanos;
+    }
+
+    private void onFrame(final long frameTimeNanos, final long frameIntervalNanos) {
+        frameStartNanos = frameTimeNanos;
+        if (0L < frameIntervalNanos) {
+            this.frameIntervalNanos = frameIntervalNanos;
+        }
+    }
+
+    /**
+     * Listens for frames while events are dispatched. Stops after the first frame without dispatching.
+     */
+    private final class FrameTracker implements MainThreadScheduler.FrameCallback {
+
+        // frames longer than that are gaps between animations, not real frame intervals
+        private static final long MAX_FRAME_INTERVAL_NANOS = 50000000L;
+        private static final int MEASURED_FRAMES = 8;
+
+        // the shortest of the last intervals is used, as longer ones are usually skipped frames
+        private final long[] intervals = new long[MEASURED_FRAMES];
+        private int nextInterval;
+
+        private long lastFrameTimeNanos;
+        private boolean isPosted;
+        private boolean isDispatched;
+        // false if platform doesn't draw frames
+        private boolean hasFrames = true;
+
+        void track() {
+            isDispatched = true;
+            if (!isPosted && hasFrames) {
+                isPosted = mainThread.postFrameCallback(this);
+                hasFrames = isPosted;
+            }
+        }
+
+        @Override
+        public void doFrame(final long frameTimeNanos) {
+            final long interval = frameTimeNanos - lastFrameTimeNanos;
+            if (0L != lastFrameTimeNanos && 0L < interval && MAX_FRAME_INTERVAL_NANOS > interval) {
+                intervals[nextInterval] = interval;
+                nextInterval = (nextInterval + 1) % MEASURED_FRAMES;
+            }
+            onFrame(frameTimeNanos, getShortestInterval());
+
+            if (isDispatched) {
+                // events are still dispatched, so next frame is tracked too
+                isDispatched = false;
+                lastFrameTimeNanos = frameTimeNanos;
+                mainThread.postFrameCallback(this);
+            } else {
+                isPosted = false;
+                lastFrameTimeNanos = 0L;
+            }
+        }
+
+        private long getShortestInterval() {
+            long shortest = 0L;
+            for (final long interval : intervals) {
+                if (0L < interval && (0L == shortest || interval < shortest)) {
+                    shortest = interval;
+                }
+            }
+            return shortest;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.azoft.events;
+
+import com.azoft.events.cache.AsyncCacheProvider;
+import com.azoft.events.cache.CacheKey;
+import com.azoft.events.cache.CacheKeyExtractor;
+import com.azoft.events.cache.CacheProvider;
+import com.azoft.events.cache.ExpiringCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of one handler method: cache provider with {@link Events.Cache} parameters.
+ */
+final class HandlerCache {
+
+    private final CacheProvider provider;
+    // null if default key is used
+    private final CacheKeyExtractor keyExtractor;
+    private final boolean isSingleFlight;
+    private final long refreshAhead;
+
+    // cache key -> events that wait for the method call in progress. Guarded by itself
+    private final Map<Object, List<Event>> flights = new HashMap<Object, List<Event>>();
+
+    HandlerCache(final CacheProvider provider, final CacheKeyExtractor keyExtractor, final boolean isSingleFlight,
+                 final long refreshAhead) {
+        if (0L < refreshAhead && !(provider instanceof ExpiringCache)) {
+            throw new RuntimeException("Cache provider " + provider.getClass().getSimpleName() + " doesn't support refreshAhead");
+        }
+        this.provider = provider;
+        this.keyExtractor = keyExtractor;
+        this.isSingleFlight = isSingleFlight;
+        this.refreshAhead = refreshAhead;
+    }
+
+    /**
+     * Sends cached result if there is one.
+     *
+     * @return true if method shouldn't be called
+     */
+    boolean load(final Event event) throws Exception {
+        if (0L < refreshAhead) {
+            // result that expires soon is sent, but method is called to refresh it
+            return ((ExpiringCache) provider).loadWithLifetime(event) > refreshAhead;
+        }
+        return provider.loadFromCache(event);
+    }
+
+    void save(final Event event, final Object result) throws Exception {
+        provider.saveToCache(event, result);
+    }
+
+    /**
+     * @return true if provider shouldn't be used in main thread
+     */
+    boolean isAsync() {
+        return provider instanceof AsyncCacheProvider;
+    }
+
+    boolean isSingleFlight() {
+        return isSingleFlight;
+    }
+
+    /**
+     * If the method is already called for the event with the same key, event waits for the result of that call.
+     *
+     * @return flight key if this event should call the method or null if it waits for other call
+     */
+    Object startFlight(final Event event) {
+        final Object key = null == keyExtractor ? CacheKey.create(event) : keyExtractor.getKey(event);
+        synchronized (flights) {
+            final List<Event> waitingEvents = flights.get(key);
+            if (null != waitingEvents) {
+                waitingEvents.add(event);
+                return null;
+            }
+            flights.put(key, new ArrayList<Event>());
+        }
+        return key;
+    }
+
+    /**
+     * @return events that waited for this call
+     */
+    List<Event> finishFlight(final Object key) {
+        synchronized (flights) {
+            final List<Event> waitingEvents = flights.remove(key);
+            return null == waitingEvents ? Collections.<Event>emptyList() : waitingEvents;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.azoft.events;
+
+import com.azoft.events.cache.CacheKeyExtractor;
+import com.azoft.events.cache.CacheProvider;
+import com.azoft.events.cache.EventKeyExtractor;
+
+import java.util.List;
+
+/**
+ * Metadata of one handler method. Used by generated {@link EventsIndex}. It has the same values as handler method annotations.
+ */
+public final class HandlerInfo {
+
+    final String methodName;
+    final EventHandler.Type type;
+    final int[] ids;
+    final String[] keys;
+
+    boolean batch;
+    boolean singleThreadExecutor;
+    String executor = EventExecutors.DEFAULT_EXECUTOR;
+    String serialLane = "";
+    Class<? extends CacheProvider> cache;
+    Class<? extends CacheKeyExtractor> cacheKey = EventKeyExtractor.class;
+    boolean cacheSingleFlight;
+    long cacheRefreshAhead;
+    Event.Priority priority = Event.Priority.NORMAL;
+
+    private HandlerInfo(final String methodName, final EventHandler.Type type, final int[] ids, final String[] keys) {
+        this.methodName = methodName;
+        this.type = type;
+        this.ids = ids;
+        this.keys = keys;
+    }
+
+    /**
+     * Method marked with {@link Events.Receiver}. Only ids or only keys can be set.
+     */
+    public static HandlerInfo receiver(final String methodName, final int[] ids, final String[] keys) {
+        return new HandlerInfo(methodName, EventHandler.Type.RECEIVER, ids, keys);
+    }
+
+    /**
+     * Method marked with {@link Events.AsyncMethod}. Only id or only key can be set, 0 and "" are not set values.
+     */
+    public static HandlerInfo asyncMethod(final String methodName, final int id, final String key) {
+        return new HandlerInfo(methodName, EventHandler.Type.METHOD_ASYNC, new int[]{id}, new String[]{key});
+    }
+
+    /**
+     * Method marked with {@link Events.UiMethod}. Only id or only key can be set, 0 and "" are not set values.
+     */
+    public static HandlerInfo uiMethod(final String methodName, final int id, final String key) {
+        return new HandlerInfo(methodName, EventHandler.Type.METHOD_UI, new int[]{id}, new String[]{key});
+    }
+
+    /**
+     * Method marked with {@link Events.Callback}. Only id or only key can be set, 0 and "" are not set values.
+     */
+    public static HandlerInfo callback(final String methodName, final int id, final String key) {
+        return new HandlerInfo(methodName, EventHandler.Type.CALLBACK, new int[]{id}, new String[]{key});
+    }
+
+    /**
+     * See {@link Events.Receiver#batch()}
+     */
+    public HandlerInfo batch() {
+        batch = true;
+        return this;
+    }
+
+    /**
+     * See {@link Events.AsyncMethod#singleThreadExecutor()}
+     */
+    public HandlerInfo singleThreadExecutor() {
+        singleThreadExecutor = true;
+        return this;
+    }
+
+    /**
+     * See {@link Events.AsyncMethod#executor()}
+     */
+    public HandlerInfo executor(final String executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * See {@link Events.AsyncMethod#serialLane()}
+     */
+    public HandlerInfo serialLane(final String serialLane) {
+        this.serialLane = serialLane;
+        return this;
+    }
+
+    /**
+     * See priority parameter of handler annotations
+     */
+    public HandlerInfo priority(final Event.Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * See {@link Events.Cache}
+     */
+    public HandlerInfo cache(final Class<? extends CacheProvider> cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * See {@link Events.Cache#key()}
+     */
+    public HandlerInfo cacheKey(final Class<? extends CacheKeyExtractor> cacheKey) {
+        this.cacheKey = cacheKey;
+        return this;
+    }
+
+    /**
+     * See {@link Events.Cache#singleFlight()}
+     */
+    public HandlerInfo cacheSingleFlight() {
+        cacheSingleFlight = true;
+        return this;
+    }
+
+    /**
+     * See {@link Events.Cache#refreshAhead()}
+     */
+    public HandlerInfo cacheRefreshAhead(final long cacheRefreshAhead) {
+        this.cacheRefreshAhead = cacheRefreshAhead;
+        return this;
+    }
+
+    Class<?> getParameterType() {
+        if (batch) {
+            return List.class;
+        }
+        return type.isCallback() ? EventCallback.class : Event.class;
+    }
+}
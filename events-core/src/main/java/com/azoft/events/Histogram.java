@@ -0,0 +1,75 @@
+package com.azoft.events;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations with fixed relative precision, like HdrHistogram. Values are grouped by power of two, and each group
+ * is split to {@link #SUB_BUCKETS} buckets, so value is known with at most 1/{@link #SUB_BUCKETS} error. Recording is one
+ * atomic increment of the bucket and a few counters, without locks and allocations.
+ * <p/>
+ * This class is thread safe.
+ */
+final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // values longer than 2^40 ns (18 minutes) are counted in the last bucket
+    private static final int MAX_EXPONENT = 39;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(final long value) {
+        final long positiveValue = Math.max(0L, value);
+        counts.incrementAndGet(getIndex(positiveValue));
+        count.incrementAndGet();
+        sum.addAndGet(positiveValue);
+
+        long currentMax = max.get();
+        while (positiveValue > currentMax && !max.compareAndSet(currentMax, positiveValue)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * @param isReset if true, histogram is cleared, so next snapshot has only values recorded after this one. Values that
+     *                are recorded at the same time can be split between snapshots
+     */
+    MetricsSnapshot.HistogramStats snapshot(final boolean isReset) {
+        final long[] bucketCounts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            bucketCounts[i] = isReset ? counts.getAndSet(i, 0L) : counts.get(i);
+        }
+        if (isReset) {
+            return new MetricsSnapshot.HistogramStats(bucketCounts, count.getAndSet(0L), sum.getAndSet(0L), max.getAndSet(0L));
+        }
+        return new MetricsSnapshot.HistogramStats(bucketCounts, count.get(), sum.get(), max.get());
+    }
+
+    private static int getIndex(final long value) {
+        if (SUB_BUCKETS > value) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (MAX_EXPONENT < exponent) {
+            return BUCKETS - 1;
+        }
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @return the largest value that is counted in this bucket
+     */
+    static long getHighestValue(final int index) {
+        if (SUB_BUCKETS > index) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1L;
+    }
+}
@@ -0,0 +1,128 @@
+package com.azoft.events;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Tracer that keeps finished spans in memory, for tests and JVM tools. Spans are kept till {@link #clear()} is called.
+ * <p/>
+ * This class is thread safe.
+ */
+public class InMemoryTracer implements EventsTracer {
+
+    private final ThreadLocal<Deque<Span>> openSpans = new ThreadLocal<Deque<Span>>() {
+        @Override
+        protected Deque<Span> initialValue() {
+            return new ArrayDeque<Span>();
+        }
+    };
+
+    // Guarded by itself
+    private final List<Span> spans = new ArrayList<Span>();
+
+    @Override
+    public void begin(final Stage stage, final int eventId) {
+        final Deque<Span> threadSpans = openSpans.get();
+        threadSpans.push(new Span(stage, eventId, Thread.currentThread().getName(), threadSpans.size(), System.nanoTime()));
+    }
+
+    @Override
+    public void end(final Stage stage, final int eventId) {
+        final Span span = openSpans.get().poll();
+        if (null == span || span.stage != stage || span.eventId != eventId) {
+            throw new IllegalStateException("Stage " + stage + " of event " + eventId + " is ended, but " +
+                    (null == span ? "nothing" : span.stage + " of event " + span.eventId) + " was begun");
+        }
+        span.endNanos = System.nanoTime();
+        synchronized (spans) {
+            spans.add(span);
+        }
+    }
+
+    /**
+     * @return finished spans in order they were ended
+     */
+    public List<Span> getSpans() {
+        synchronized (spans) {
+            return new ArrayList<Span>(spans);
+        }
+    }
+
+    /**
+     * @return finished spans of this stage in order they were ended
+     */
+    public List<Span> getSpans(final Stage stage) {
+        final List<Span> stageSpans = new ArrayList<Span>();
+        for (final Span span : getSpans()) {
+            if (stage == span.stage) {
+                stageSpans.add(span);
+            }
+        }
+        return stageSpans;
+    }
+
+    public void clear() {
+        synchronized (spans) {
+            spans.clear();
+        }
+    }
+
+    public static final class Span {
+
+        private final Stage stage;
+        private final int eventId;
+        private final String threadName;
+        private final int depth;
+        private final long startNanos;
+        private long endNanos;
+
+        Span(final Stage stage, final int eventId, final String threadName, final int depth, final long startNanos) {
+            this.stage = stage;
+            this.eventId = eventId;
+            this.threadName = threadName;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+
+        public Stage getStage() {
+            return stage;
+        }
+
+        public int getEventId() {
+            return eventId;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * @return number of spans this one is nested in
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return System.nanoTime() when span was begun
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getEndNanos() {
+            return endNanos;
+        }
+
+        public long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+
+        @Override
+        public String toString() {
+            return stage + " " + Utils.getName(eventId) + " in " + threadName + ": " + getDurationNanos() / 1000L + "us";
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.azoft.events;
+
+import java.util.Arrays;
+
+/**
+ * Map of int keys to values without boxing, like Android SparseArray: keys are kept sorted in array and found with binary
+ * search. It is compact and fast for tens or hundreds of keys, like event ids.
+ * <p/>
+ * This class is not thread safe.
+ */
+final class IntMap<E> implements Cloneable {
+
+    private static final int INITIAL_CAPACITY = 10;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    E get(final int key) {
+        final int index = Arrays.binarySearch(keys, 0, size, key);
+        return 0 > index ? null : (E) values[index];
+    }
+
+    void put(final int key, final E value) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (0 <= index) {
+            values[index] = value;
+            return;
+        }
+
+        index = ~index;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        keys[index] = key;
+        values[index] = value;
+        ++size;
+    }
+
+    void remove(final int key) {
+        final int index = Arrays.binarySearch(keys, 0, size, key);
+        if (0 <= index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            --size;
+            values[size] = null;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int keyAt(final int index) {
+        return keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    E valueAt(final int index) {
+        return (E) values[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public IntMap<E> clone() {
+        try {
+            final IntMap<E> clone = (IntMap<E>) super.clone();
+            clone.keys = keys.clone();
+            clone.values = values.clone();
+            return clone;
+        } catch (final CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.azoft.events;
+
+/**
+ * Sends metrics to telemetry, see {@link EventsMetrics#startExport(MetricsExporter, long)}.
+ */
+public interface MetricsExporter {
+
+    /**
+     * Called in main thread, so it should only pass snapshot to other thread for sending.
+     *
+     * @param snapshot metrics recorded since the previous export
+     */
+    void export(MetricsSnapshot snapshot);
+}
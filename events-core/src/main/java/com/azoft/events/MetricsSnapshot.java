@@ -0,0 +1,227 @@
+package com.azoft.events;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Metrics of events dispatching, see {@link EventsMetrics}. Durations are in nanoseconds.
+ */
+public final class MetricsSnapshot {
+
+    private final long timeMillis;
+    private final int queueSize;
+    private final int parkedSize;
+    private final int parkedReceivers;
+    private final List<HandlerStats> handlers;
+    private final List<ExecutorStats> executors;
+
+    MetricsSnapshot(final long timeMillis, final int queueSize, final int parkedSize, final int parkedReceivers,
+                    final List<HandlerStats> handlers, final List<ExecutorStats> executors) {
+        this.timeMillis = timeMillis;
+        this.queueSize = queueSize;
+        this.parkedSize = parkedSize;
+        this.parkedReceivers = parkedReceivers;
+        this.handlers = Collections.unmodifiableList(handlers);
+        this.executors = Collections.unmodifiableList(executors);
+    }
+
+    /**
+     * @return wall clock time when snapshot was taken
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * @return number of events and callbacks waiting for delivery, including ones of paused receivers
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * @return number of events and callbacks waiting for paused receivers to be resumed
+     */
+    public int getParkedSize() {
+        return parkedSize;
+    }
+
+    /**
+     * @return number of paused receivers that have events waiting for them
+     */
+    public int getParkedReceivers() {
+        return parkedReceivers;
+    }
+
+    /**
+     * @return metrics of each event id and handler type that had events since metrics were set
+     */
+    public List<HandlerStats> getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * @return state of registered executors. Only {@link java.util.concurrent.ThreadPoolExecutor} executors are here
+     */
+    public List<ExecutorStats> getExecutors() {
+        return executors;
+    }
+
+    public static final class HandlerStats {
+
+        private final int eventId;
+        private final String eventName;
+        private final String handlerType;
+        private final HistogramStats waitTime;
+        private final HistogramStats handleTime;
+        private final long callbacks;
+        private final long callbackDeliveries;
+
+        HandlerStats(final int eventId, final String eventName, final String handlerType, final HistogramStats waitTime,
+                     final HistogramStats handleTime, final long callbacks, final long callbackDeliveries) {
+            this.eventId = eventId;
+            this.eventName = eventName;
+            this.handlerType = handlerType;
+            this.waitTime = waitTime;
+            this.handleTime = handleTime;
+            this.callbacks = callbacks;
+            this.callbackDeliveries = callbackDeliveries;
+        }
+
+        public int getEventId() {
+            return eventId;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+
+        /**
+         * @return RECEIVER, RECEIVER_BATCH, METHOD_ASYNC, METHOD_ASYNC_SINGLE, METHOD_UI or CALLBACK
+         */
+        public String getHandlerType() {
+            return handlerType;
+        }
+
+        /**
+         * @return time from the moment event or callback was queued for this handler till it was dispatched in main thread.
+         * Async methods are sent to their executors then
+         */
+        public HistogramStats getWaitTime() {
+            return waitTime;
+        }
+
+        /**
+         * @return time of handler method execution
+         */
+        public HistogramStats getHandleTime() {
+            return handleTime;
+        }
+
+        /**
+         * @return number of callbacks of this event id, for CALLBACK type only
+         */
+        public long getCallbacks() {
+            return callbacks;
+        }
+
+        /**
+         * @return number of callbacks deliveries to callback methods, for CALLBACK type only
+         */
+        public long getCallbackDeliveries() {
+            return callbackDeliveries;
+        }
+    }
+
+    public static final class ExecutorStats {
+
+        private final String name;
+        private final int activeThreads;
+        private final int poolSize;
+        private final int queuedTasks;
+
+        ExecutorStats(final String name, final int activeThreads, final int poolSize, final int queuedTasks) {
+            this.name = name;
+            this.activeThreads = activeThreads;
+            this.poolSize = poolSize;
+            this.queuedTasks = queuedTasks;
+        }
+
+        /**
+         * @return name the executor was registered with, "" for default executor
+         */
+        public String getName() {
+            return name;
+        }
+
+        public int getActiveThreads() {
+            return activeThreads;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        /**
+         * @return number of tasks waiting for a free thread
+         */
+        public int getQueuedTasks() {
+            return queuedTasks;
+        }
+    }
+
+    public static final class HistogramStats {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        HistogramStats(final long[] counts, final long count, final long sum, final long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getMean() {
+            return 0L == count ? 0L : sum / count;
+        }
+
+        /**
+         * @param percentile value from 0 to 100
+         * @return value that is greater or equal to this percent of values, with about 12% precision
+         */
+        public long getPercentile(final double percentile) {
+            long total = 0L;
+            for (final long bucketCount : counts) {
+                total += bucketCount;
+            }
+            if (0L == total) {
+                return 0L;
+            }
+
+            final long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+            long counted = 0L;
+            for (int i = 0; i < counts.length; ++i) {
+                counted += counts[i];
+                if (counted >= rank) {
+                    return Math.min(Histogram.getHighestValue(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
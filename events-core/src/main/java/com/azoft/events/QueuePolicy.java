@@ -0,0 +1,55 @@
+package com.azoft.events;
+
+/**
+ * Limits number of events and callbacks waiting for delivery, for example while receiver is paused.
+ * <p/>
+ * Only {@link Events.Receiver} events and {@link EventCallback.Status#RESULT} callbacks are affected by this policy.
+ * Method executions and other callbacks are always queued (but counted), otherwise events would never be finished.
+ */
+public final class QueuePolicy {
+
+    public static final int UNLIMITED = 0;
+
+    public static final QueuePolicy UNBOUNDED = new QueuePolicy(UNLIMITED, UNLIMITED, Overflow.DROP_NEWEST);
+
+    final int maxSize;
+    final int maxReceiverSize;
+    final Overflow overflow;
+
+    /**
+     * @param maxSize         max number of waiting events and callbacks for all receivers or {@link #UNLIMITED}
+     * @param maxReceiverSize max number of waiting events and callbacks for one receiver or {@link #UNLIMITED}
+     * @param overflow        what to do when new event or callback can't be queued
+     */
+    public QueuePolicy(final int maxSize, final int maxReceiverSize, final Overflow overflow) {
+        if (0 > maxSize || 0 > maxReceiverSize) {
+            throw new IllegalArgumentException("queue size can't be negative");
+        }
+        if (null == overflow) {
+            throw new NullPointerException("overflow can't be null");
+        }
+        this.maxSize = maxSize;
+        this.maxReceiverSize = maxReceiverSize;
+        this.overflow = overflow;
+    }
+
+    public enum Overflow {
+        /**
+         * The oldest waiting event or callback is dropped.
+         */
+        DROP_OLDEST,
+        /**
+         * New event or callback is dropped.
+         */
+        DROP_NEWEST,
+        /**
+         * New event or callback replaces the waiting one with the same id for the same handler. If there is no such one,
+         * the oldest is dropped.
+         */
+        COALESCE,
+        /**
+         * New event or callback is dropped and {@link EventsQueueOverflowException} is sent to {@link EventsErrorHandler}.
+         */
+        REJECT
+    }
+}
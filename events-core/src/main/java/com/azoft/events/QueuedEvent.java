@@ -0,0 +1,131 @@
+package com.azoft.events;
+
+/**
+ * Event or callback waiting in {@link EventsQueue} for delivery to one handler method.
+ */
+final class QueuedEvent {
+
+    private static final int MAX_POOL_SIZE = 50;
+
+    private static final Object POOL_LOCK = new Object();
+    private static QueuedEvent sPool;
+    private static int sPoolSize;
+
+    EventReceiver receiver;
+    EventHandler method;
+    // can be replaced with newer event or callback of the same id, see setEvent
+    Object event;
+
+    boolean isErrorHandling;
+    // the higher of event and handler priorities
+    Event.Priority priority;
+
+    // true if async cache was checked and UI method should be called
+    boolean isCacheLoaded;
+
+    // System.nanoTime() when it was queued or 0 if metrics are not recorded
+    long queuedNanos;
+
+    // false after it was removed from the queue. Removed events are skipped by the queue later
+    boolean isQueued;
+    // true while it waits in parked set of paused receiver
+    boolean isParked;
+
+    // next one in the pool
+    private QueuedEvent next;
+
+    private QueuedEvent() {
+    }
+
+    static QueuedEvent create(final EventReceiver receiver, final EventHandler method, final Object event) {
+        return obtain(receiver, method, event, false);
+    }
+
+    static QueuedEvent createErrorHandler(final EventCallback callback) {
+        return obtain(null, null, callback, true);
+    }
+
+    private static QueuedEvent obtain(final EventReceiver receiver, final EventHandler method, final Object event,
+                                      final boolean isErrorHandling) {
+        QueuedEvent queuedEvent = null;
+        if (Events.isPooling) {
+            synchronized (POOL_LOCK) {
+                if (null != sPool) {
+                    queuedEvent = sPool;
+                    sPool = queuedEvent.next;
+                    queuedEvent.next = null;
+                    --sPoolSize;
+                }
+            }
+        }
+        if (null == queuedEvent) {
+            queuedEvent = new QueuedEvent();
+        }
+
+        queuedEvent.receiver = receiver;
+        queuedEvent.method = method;
+        queuedEvent.isErrorHandling = isErrorHandling;
+        queuedEvent.isQueued = false;
+        queuedEvent.isParked = false;
+        queuedEvent.queuedNanos = null == Events.metrics ? 0L : System.nanoTime();
+        queuedEvent.priority = getPriority(method, event);
+        queuedEvent.setEvent(event);
+        return queuedEvent;
+    }
+
+    private static Event.Priority getPriority(final EventHandler method, final Object event) {
+        final Event.Priority eventPriority = event instanceof Event ? ((Event) event).priority : ((EventCallback) event).getEvent().priority;
+        if (null == method || eventPriority.ordinal() < method.getPriority().ordinal()) {
+            return eventPriority;
+        }
+        return method.getPriority();
+    }
+
+    /**
+     * Callbacks are retained while they are waiting for delivery.
+     */
+    void setEvent(final Object event) {
+        if (event instanceof EventCallback) {
+            ((EventCallback) event).retain();
+        }
+        if (this.event instanceof EventCallback) {
+            ((EventCallback) this.event).release();
+        }
+        this.event = event;
+    }
+
+    /**
+     * Should be called when it was delivered or dropped and is not referenced by the queue anymore.
+     */
+    void recycle() {
+        setEvent(null);
+        receiver = null;
+        method = null;
+        isCacheLoaded = false;
+        if (Events.isPooling) {
+            synchronized (POOL_LOCK) {
+                if (MAX_POOL_SIZE > sPoolSize) {
+                    next = sPool;
+                    sPool = this;
+                    ++sPoolSize;
+                }
+            }
+        }
+    }
+
+    /**
+     * Only receiver events and RESULT callbacks can be dropped when queue is full. Method executions and other callbacks
+     * are always delivered, otherwise events would never be finished.
+     */
+    boolean isDroppable() {
+        return !isErrorHandling && (method.getType().isReceiver() || (method.getType().isCallback() && ((EventCallback) event).isResult()));
+    }
+
+    /**
+     * Whether this is delivery to the same handler and the same event id, so one of them can be replaced by the other.
+     */
+    boolean isCoalescableWith(final QueuedEvent other) {
+        //noinspection ObjectEquality
+        return isDroppable() && other.isDroppable() && receiver == other.receiver && method == other.method;
+    }
+}
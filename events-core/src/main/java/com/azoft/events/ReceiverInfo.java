@@ -0,0 +1,19 @@
+package com.azoft.events;
+
+/**
+ * Handler methods declared in one receiver class. Used by generated {@link EventsIndex}.
+ */
+public final class ReceiverInfo {
+
+    final EventInvokers invokers;
+    final HandlerInfo[] handlers;
+
+    /**
+     * @param invokers generated invokers for the class or null if there are none
+     * @param handlers handler methods declared in the class. Can be empty
+     */
+    public ReceiverInfo(final EventInvokers invokers, final HandlerInfo... handlers) {
+        this.invokers = invokers;
+        this.handlers = handlers;
+    }
+}
@@ -0,0 +1,61 @@
+package com.azoft.events;
+
+/**
+ * Key of single event in progress. Keys are equal if events have the same id and equal data items.
+ * <p/>
+ * Hash code is computed once. The key made when event is posted is kept in the event and used to remove it, so it is
+ * found even if data objects were changed by the caller after posting.
+ */
+final class SingleEventKey {
+
+    private final Event event;
+    private final int hashCode;
+
+    SingleEventKey(final Event event) {
+        this.event = event;
+
+        int hash = event.getId();
+        final int dataCount = event.getDataCount();
+        for (int i = 0; i < dataCount; ++i) {
+            final Object dataItem = event.getData(i);
+            hash = 31 * hash + (null == dataItem ? 0 : dataItem.hashCode());
+        }
+        hashCode = hash;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SingleEventKey)) {
+            return false;
+        }
+
+        final SingleEventKey other = (SingleEventKey) o;
+        return hashCode == other.hashCode && isSameEvent(event, other.event);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    private static boolean isSameEvent(final Event event, final Event otherEvent) {
+        if (event.getId() != otherEvent.getId()) {
+            return false;
+        }
+        final int dataCount = event.getDataCount();
+        if (dataCount != otherEvent.getDataCount()) {
+            return false;
+        }
+        for (int i = 0; i < dataCount; ++i) {
+            final Object eventDataItem = event.getData(i);
+            final Object otherEventDataItem = otherEvent.getData(i);
+            if (null == eventDataItem ? null != otherEventDataItem : !eventDataItem.equals(otherEventDataItem)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
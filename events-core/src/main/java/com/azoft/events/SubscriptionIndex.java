@@ -0,0 +1,150 @@
+package com.azoft.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of registered event handlers by event id. Lets dispatcher find subscribers of the event without
+ * looking through all registered receivers and their methods.
+ * <p/>
+ * Subscriptions for one event id are kept in the same order as receivers in the dispatcher: the newest receiver goes first.
+ * Lists are never changed after they were published, so they can be iterated while receivers are registered or unregistered.
+ * <p/>
+ * This class is not thread safe and should be used from UI thread only. The only exception is {@link #getAsyncRoute(int)}.
+ */
+final class SubscriptionIndex {
+
+    private final IntMap<List<Subscription>> handlers = new IntMap<List<Subscription>>();
+    private final IntMap<List<Subscription>> callbacks = new IntMap<List<Subscription>>();
+
+    // Event id -> the only handler of the event if it is async method. Replaced with new copy on every change.
+    private volatile IntMap<Subscription> asyncRoutes = new IntMap<Subscription>();
+
+    /**
+     * Returns subscriptions of {@link EventHandler.Type#RECEIVER} and method types for this event id. Never null.
+     */
+    List<Subscription> getHandlers(final int eventId) {
+        return get(handlers, eventId);
+    }
+
+    /**
+     * Returns subscriptions of {@link EventHandler.Type#CALLBACK} type for this event id. Never null.
+     */
+    List<Subscription> getCallbacks(final int eventId) {
+        return get(callbacks, eventId);
+    }
+
+    /**
+     * Returns subscription if this is the only handler for the event and it is async method, otherwise returns null.
+     * <p/>
+     * This method can be called from any thread.
+     */
+    Subscription getAsyncRoute(final int eventId) {
+        return asyncRoutes.get(eventId);
+    }
+
+    /**
+     * Adds all receiver methods in front of the already registered ones.
+     */
+    void add(final EventReceiver receiver) {
+        if (null == receiver.getMethods()) {
+            return;
+        }
+
+        final IntMap<List<Subscription>> addedHandlers = new IntMap<List<Subscription>>();
+        final IntMap<List<Subscription>> addedCallbacks = new IntMap<List<Subscription>>();
+        for (final EventHandler method : receiver.getMethods()) {
+            final IntMap<List<Subscription>> added = method.getType().isCallback() ? addedCallbacks : addedHandlers;
+            List<Subscription> subscriptions = added.get(method.getEventId());
+            if (null == subscriptions) {
+                subscriptions = new ArrayList<Subscription>();
+                added.put(method.getEventId(), subscriptions);
+            }
+            subscriptions.add(new Subscription(receiver, method));
+        }
+
+        merge(handlers, addedHandlers);
+        merge(callbacks, addedCallbacks);
+        updateAsyncRoutes(receiver);
+    }
+
+    void remove(final EventReceiver receiver) {
+        if (null == receiver.getMethods()) {
+            return;
+        }
+
+        for (final EventHandler method : receiver.getMethods()) {
+            remove(method.getType().isCallback() ? callbacks : handlers, method.getEventId(), receiver);
+        }
+        updateAsyncRoutes(receiver);
+    }
+
+    private void updateAsyncRoutes(final EventReceiver receiver) {
+        final IntMap<Subscription> routes = asyncRoutes.clone();
+        for (final EventHandler method : receiver.getMethods()) {
+            if (method.getType().isCallback()) {
+                continue;
+            }
+
+            final List<Subscription> subscriptions = getHandlers(method.getEventId());
+            if (1 == subscriptions.size() && (subscriptions.get(0).method.getType().isAsync() || subscriptions.get(0).method.getType().isAsyncSingle())) {
+                routes.put(method.getEventId(), subscriptions.get(0));
+            } else {
+                routes.remove(method.getEventId());
+            }
+        }
+        asyncRoutes = routes;
+    }
+
+    private static List<Subscription> get(final IntMap<List<Subscription>> index, final int eventId) {
+        final List<Subscription> subscriptions = index.get(eventId);
+        return null == subscriptions ? Collections.<Subscription>emptyList() : subscriptions;
+    }
+
+    private static void merge(final IntMap<List<Subscription>> index, final IntMap<List<Subscription>> added) {
+        for (int i = 0, size = added.size(); i < size; ++i) {
+            final int eventId = added.keyAt(i);
+            final List<Subscription> addedSubscriptions = added.valueAt(i);
+            final List<Subscription> oldSubscriptions = get(index, eventId);
+
+            final List<Subscription> subscriptions = new ArrayList<Subscription>(addedSubscriptions.size() + oldSubscriptions.size());
+            subscriptions.addAll(addedSubscriptions);
+            subscriptions.addAll(oldSubscriptions);
+            index.put(eventId, subscriptions);
+        }
+    }
+
+    private static void remove(final IntMap<List<Subscription>> index, final int eventId, final EventReceiver receiver) {
+        final List<Subscription> oldSubscriptions = index.get(eventId);
+        if (null == oldSubscriptions) {
+            // already removed with other method of this receiver
+            return;
+        }
+
+        final List<Subscription> subscriptions = new ArrayList<Subscription>(oldSubscriptions.size());
+        for (final Subscription subscription : oldSubscriptions) {
+            //noinspection ObjectEquality
+            if (subscription.receiver != receiver) {
+                subscriptions.add(subscription);
+            }
+        }
+
+        if (subscriptions.isEmpty()) {
+            index.remove(eventId);
+        } else if (subscriptions.size() != oldSubscriptions.size()) {
+            index.put(eventId, subscriptions);
+        }
+    }
+
+    static final class Subscription {
+
+        final EventReceiver receiver;
+        final EventHandler method;
+
+        Subscription(final EventReceiver receiver, final EventHandler method) {
+            this.receiver = receiver;
+            this.method = method;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.azoft.events;
+
+/**
+ * Calls {@link EventsTracer} if it is set. Tracer returned by {@link #begin(EventsTracer.Stage, int)} should be passed to
+ * {@link #end(EventsTracer, EventsTracer.Stage, int)}, so stage is ended even if tracer was replaced in between.
+ */
+final class Tracing {
+
+    private Tracing() {
+    }
+
+    /**
+     * @return tracer that began the stage or null
+     */
+    static EventsTracer begin(final EventsTracer.Stage stage, final int eventId) {
+        final EventsTracer tracer = Events.tracer;
+        if (null != tracer) {
+            tracer.begin(stage, eventId);
+        }
+        return tracer;
+    }
+
+    static void end(final EventsTracer tracer, final EventsTracer.Stage stage, final int eventId) {
+        if (null != tracer) {
+            tracer.end(stage, eventId);
+        }
+    }
+}
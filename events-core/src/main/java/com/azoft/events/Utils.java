@@ -0,0 +1,93 @@
+package com.azoft.events;
+
+import com.azoft.events.platform.EventsPlatform;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+final class Utils {
+
+    // Keys are converted on any thread that posts events
+    private static final ConcurrentMap<String, GeneratedId> NAME_IDS = new ConcurrentHashMap<String, GeneratedId>();
+    // Names of generated ids are their string keys
+    private static final ConcurrentMap<Integer, String> KEY_NAMES = new ConcurrentHashMap<Integer, String>();
+    // Platform lookup of id name can be slow (Resources on Android), so found names are kept
+    private static final ConcurrentMap<Integer, String> ID_NAMES = new ConcurrentHashMap<Integer, String>();
+
+    static String getName(final int resourceId) {
+        final Integer key = resourceId;
+        String name = KEY_NAMES.get(key);
+        if (null == name) {
+            name = ID_NAMES.get(key);
+            if (null == name) {
+                name = EventsPlatform.get().getIdName(resourceId);
+                // Id itself isn't kept, so name is found once platform can find it (Android context is set)
+                if (!name.equals(String.valueOf(resourceId))) {
+                    ID_NAMES.put(key, name);
+                }
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Names are found again with the new platform.
+     */
+    static void clearIdNames() {
+        ID_NAMES.clear();
+    }
+
+    static String getClassName(final Object obj) {
+        return null == obj ? "null" : obj.getClass().getSimpleName();
+    }
+
+    static int convertKeyToId(final String str) {
+        if (null == str) {
+            throw new RuntimeException("null string keys are not acceptable");
+        }
+
+        GeneratedId androidId = NAME_IDS.get(str);
+        if (null == androidId) {
+            final GeneratedId newAndroidId = new GeneratedId(str);
+            androidId = NAME_IDS.putIfAbsent(str, newAndroidId);
+            if (null == androidId) {
+                androidId = newAndroidId;
+            }
+        }
+
+        return androidId.get();
+    }
+
+    /**
+     * Id is generated on first request. Only threads asking for the same new key wait for each other.
+     */
+    private static final class GeneratedId {
+
+        private final String key;
+
+        // 0 if id was not generated yet
+        private volatile int id;
+
+        GeneratedId(final String key) {
+            this.key = key;
+        }
+
+        int get() {
+            int result = id;
+            if (0 == result) {
+                synchronized (this) {
+                    result = id;
+                    if (0 == result) {
+                        result = EventsPlatform.get().generateId();
+                        KEY_NAMES.put(result, key);
+                        id = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private Utils() {
+    }
+}
\ No newline at end of file
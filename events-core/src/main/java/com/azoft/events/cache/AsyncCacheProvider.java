@@ -0,0 +1,12 @@
+package com.azoft.events.cache;
+
+/**
+ * Cache provider that uses disk, database or network. Its methods are never called in main thread: for
+ * {@link com.azoft.events.Events.UiMethod} methods cached result is loaded in cache executor
+ * ({@link com.azoft.events.Events#CACHE_EXECUTOR}), and the method is called in main thread only if there is no fresh
+ * result. Results are saved in cache executor after they are sent to callbacks, so saving errors are only logged.
+ * <p/>
+ * Provider methods can be called from several threads at the same time.
+ */
+public interface AsyncCacheProvider extends CacheProvider {
+}
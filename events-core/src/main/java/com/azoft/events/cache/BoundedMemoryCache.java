@@ -0,0 +1,228 @@
+package com.azoft.events.cache;
+
+import com.azoft.events.Event;
+import com.azoft.events.platform.Clock;
+import com.azoft.events.platform.EventsPlatform;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memory cache with limited size. Unlike {@link MemoryCache} entries are kept in segments with their own locks, so cache
+ * hits from many async methods don't wait for each other. Every segment removes least recently used entries when it is
+ * full, and expired entries are removed by {@link ExpiryWheel} while cache is used, without any work in main thread.
+ * <p/>
+ * Cache provider is created for each handler method, so create subclass with default constructor to use it:
+ * <pre>
+ * public class UsersCache extends BoundedMemoryCache {
+ *     public UsersCache() {
+ *         super(200, 60000L, true);
+ *     }
+ * }
+ * </pre>
+ */
+public class BoundedMemoryCache implements KeyedCache, ExpiringCache {
+
+    public static final long NO_TIME_LIMIT = MemoryCache.NO_TIME_LIMIT;
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final long maxLifetime;
+    private final Clock clock = EventsPlatform.get().getClock();
+    private final Segment[] segments;
+    private final int segmentMask;
+    private CacheKeyExtractor keyExtractor;
+
+    /**
+     * @param maxSize        maximum total weight of entries. By default every entry weighs 1, see {@link #weigh(Object)}
+     * @param maxLifetime    time in milliseconds after which entry is expired or {@link #NO_TIME_LIMIT}. Expired result is
+     *                       still sent to callbacks, but the method is called again
+     * @param isClearExpired if true, expired entries are removed and their results aren't sent
+     */
+    public BoundedMemoryCache(final int maxSize, final long maxLifetime, final boolean isClearExpired) {
+        if (0 >= maxSize) {
+            throw new IllegalArgumentException("maxSize should be positive");
+        }
+        if (0L > maxLifetime) {
+            throw new IllegalArgumentException("maxLifetime can't be negative");
+        }
+        this.maxLifetime = maxLifetime;
+
+        int segmentsCount = 1;
+        while (segmentsCount < MAX_SEGMENTS && segmentsCount * 2 <= maxSize) {
+            segmentsCount *= 2;
+        }
+        segments = new Segment[segmentsCount];
+        segmentMask = segmentsCount - 1;
+        final long now = clock.uptimeMillis();
+        for (int i = 0; i < segmentsCount; i++) {
+            // first segments get the rest of division, so total size is exactly maxSize
+            final int segmentSize = maxSize / segmentsCount + (i < maxSize % segmentsCount ? 1 : 0);
+            segments[i] = new Segment(segmentSize, isClearExpired && NO_TIME_LIMIT != maxLifetime ? new ExpiryWheel(maxLifetime, now) : null);
+        }
+    }
+
+    @Override
+    public void setKeyExtractor(final CacheKeyExtractor keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public boolean loadFromCache(final Event event) {
+        return 0L < loadWithLifetime(event);
+    }
+
+    @Override
+    public long loadWithLifetime(final Event event) {
+        final CachedResult result = find(getCacheKey(event));
+        if (null == result) {
+            return NOT_FOUND;
+        }
+
+        event.sendResult(result.data);
+
+        return result.lifetime;
+    }
+
+    @Override
+    public void saveToCache(final Event event, final Object result) {
+        save(getCacheKey(event), result, NO_TIME_LIMIT == maxLifetime ? CachedResult.UNLIMITED : maxLifetime);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (final Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return weight of the result in {@link #BoundedMemoryCache(int, long, boolean)} maxSize units. Should be positive
+     */
+    protected int weigh(final Object result) {
+        return 1;
+    }
+
+    /**
+     * @return key made by key extractor or {@link CacheKey} of the event
+     */
+    protected Object getCacheKey(final Event event) {
+        return null == keyExtractor ? CacheKey.create(event) : keyExtractor.getKey(event);
+    }
+
+    /**
+     * @return cached result or null if there is no result for this key
+     */
+    CachedResult find(final Object key) {
+        final long now = clock.uptimeMillis();
+        final Entry entry = getSegment(key).get(key, now);
+        if (null == entry) {
+            return null;
+        }
+        return new CachedResult(entry.data, Long.MAX_VALUE == entry.expires ? CachedResult.UNLIMITED : entry.expires - now);
+    }
+
+    /**
+     * @param lifetime time in milliseconds while result is fresh or {@link CachedResult#UNLIMITED}
+     */
+    void save(final Object key, final Object result, final long lifetime) {
+        final long now = clock.uptimeMillis();
+        // result from other level isn't kept longer than results of this cache
+        final long limitedLifetime = NO_TIME_LIMIT == maxLifetime ? lifetime : Math.min(lifetime, maxLifetime);
+        final long expires = CachedResult.UNLIMITED == limitedLifetime ? Long.MAX_VALUE : now + limitedLifetime;
+        getSegment(key).put(new Entry(key, result, expires, weigh(result)), now);
+    }
+
+    private Segment getSegment(final Object key) {
+        // spreading bits, so keys with the same low bits are not in the same segment
+        int hash = key.hashCode();
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return segments[hash & segmentMask];
+    }
+
+    private static final class Entry extends ExpiryWheel.Node {
+
+        final Object key;
+        final Object data;
+        final int weight;
+
+        Entry(final Object key, final Object data, final long expires, final int weight) {
+            this.key = key;
+            this.data = data;
+            this.expires = expires;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Part of the cache with its own lock. Entries are kept in access order, so the eldest one is least recently used.
+     */
+    private final class Segment {
+
+        private final Map<Object, Entry> entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+        private final int maxSize;
+        private final ExpiryWheel wheel;
+        private int size;
+
+        Segment(final int maxSize, final ExpiryWheel wheel) {
+            this.maxSize = maxSize;
+            this.wheel = wheel;
+        }
+
+        synchronized Entry get(final Object key, final long now) {
+            removeExpired(now);
+            return entries.get(key);
+        }
+
+        synchronized void put(final Entry entry, final long now) {
+            removeExpired(now);
+            remove(entries.put(entry.key, entry));
+            size += entry.weight;
+            if (null != wheel && Long.MAX_VALUE != entry.expires) {
+                wheel.schedule(entry);
+            }
+
+            // the new entry is kept even if it is heavier than the whole segment
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (size > maxSize && 1 < entries.size()) {
+                final Entry eldest = iterator.next();
+                iterator.remove();
+                remove(eldest);
+            }
+        }
+
+        synchronized void clear() {
+            for (final Entry entry : entries.values()) {
+                remove(entry);
+            }
+            entries.clear();
+        }
+
+        private void remove(final Entry entry) {
+            if (null != entry) {
+                size -= entry.weight;
+                if (null != wheel) {
+                    wheel.unschedule(entry);
+                }
+            }
+        }
+
+        private void removeExpired(final long now) {
+            if (null == wheel) {
+                return;
+            }
+            ExpiryWheel.Node node = wheel.advance(now);
+            while (null != node) {
+                final Entry entry = (Entry) node;
+                node = node.next;
+                entry.next = null;
+                entries.remove(entry.key);
+                size -= entry.weight;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.azoft.events.cache;
+
+import com.azoft.events.Event;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Cache key made of event id and data items. Keys are equal when ids are equal and data items are equal by
+ * {@link Object#equals(Object)}, the same way single events are compared. Unlike string keys, data items are not converted
+ * to strings, and different data can't produce the same key.
+ */
+public final class CacheKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Object[] NO_DATA = new Object[0];
+
+    private final int eventId;
+    private final Object[] data;
+    // hash codes of some data can be different in other process, so it isn't written
+    private final transient int hashCode;
+
+    private CacheKey(final int eventId, final Object[] data) {
+        this.eventId = eventId;
+        this.data = data;
+        hashCode = 31 * eventId + Arrays.hashCode(data);
+    }
+
+    public static CacheKey create(final Event event) {
+        final int count = event.getDataCount();
+        if (0 == count) {
+            return new CacheKey(event.getId(), NO_DATA);
+        }
+
+        final Object[] data = new Object[count];
+        for (int i = 0; i < count; i++) {
+            data[i] = event.getData(i);
+        }
+        return new CacheKey(event.getId(), data);
+    }
+
+    /**
+     * Key for custom {@link CacheKeyExtractor}. Data array is not copied, so it shouldn't be changed later.
+     */
+    public static CacheKey create(final int eventId, final Object... data) {
+        return new CacheKey(eventId, null == data ? NO_DATA : data);
+    }
+
+    private Object readResolve() {
+        return new CacheKey(eventId, data);
+    }
+
+    public int getEventId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+
+        final CacheKey cacheKey = (CacheKey) o;
+        return eventId == cacheKey.eventId && hashCode == cacheKey.hashCode && Arrays.equals(data, cacheKey.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheKey{eventId=" + eventId + ", data=" + Arrays.toString(data) + '}';
+    }
+}
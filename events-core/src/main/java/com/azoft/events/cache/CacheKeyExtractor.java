@@ -0,0 +1,16 @@
+package com.azoft.events.cache;
+
+import com.azoft.events.Event;
+
+/**
+ * Makes cache key for the event. Set it with {@link com.azoft.events.Events.Cache#key()} when only part of event data
+ * defines the result, or when data items don't implement equals and hashCode. Implementation should have public default
+ * constructor.
+ */
+public interface CacheKeyExtractor {
+
+    /**
+     * @return key that is equal for events with the same result. It should implement equals and hashCode
+     */
+    Object getKey(Event event);
+}
@@ -0,0 +1,18 @@
+package com.azoft.events.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Converts results to bytes for {@link DiskCache}. Implementation should have public default constructor.
+ */
+public interface CacheSerializer {
+
+    void write(Object result, OutputStream out) throws IOException;
+
+    /**
+     * @throws IOException if result can't be read. Such result is treated as not cached
+     */
+    Object read(InputStream in) throws IOException;
+}
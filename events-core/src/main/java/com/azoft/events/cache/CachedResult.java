@@ -0,0 +1,23 @@
+package com.azoft.events.cache;
+
+/**
+ * Result found in one level of {@link TwoLevelCache}.
+ */
+final class CachedResult {
+
+    // lifetime of results that never expire
+    static final long UNLIMITED = ExpiringCache.UNLIMITED;
+
+    final Object data;
+    // time in milliseconds left till expiration, not positive if result is expired, or UNLIMITED
+    final long lifetime;
+
+    CachedResult(final Object data, final long lifetime) {
+        this.data = data;
+        this.lifetime = lifetime;
+    }
+
+    boolean isFresh() {
+        return 0L < lifetime;
+    }
+}
@@ -0,0 +1,378 @@
+package com.azoft.events.cache;
+
+import com.azoft.events.Event;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache that keeps results in a file, so they survive process restart. Results are appended to the end of the file and
+ * found by in-memory index, which is read from the file on first use. When the file becomes larger than its maximum size,
+ * it is compacted: replaced and expired results are removed, and the oldest results are removed too if there are still
+ * too many of them.
+ * <p/>
+ * Keys are written with Java serialization, so {@link CacheKey} can be used only with {@link java.io.Serializable} event
+ * data. Results are written with {@link CacheSerializer}.
+ * <p/>
+ * Cache instances with the same file share one index, so one cache class can be used by many methods. They should be
+ * created with the same maximum size.
+ * <p/>
+ * Disk is never used in main thread, see {@link AsyncCacheProvider}. Use {@link TwoLevelCache} to keep the latest results in memory too:
+ * <pre>
+ * public class UsersCache extends DiskCache {
+ *     public UsersCache() {
+ *         super(new File(App.getInstance().getCacheDir(), "users"), 1024 * 1024, 24 * 60 * 60 * 1000L);
+ *     }
+ * }
+ * </pre>
+ */
+public class DiskCache implements KeyedCache, ExpiringCache, AsyncCacheProvider {
+
+    public static final long NO_TIME_LIMIT = 0L;
+
+    // key length, result length, expiration time
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+    // expiration time of results that never expire
+    private static final long NEVER = 0L;
+    // part of maximum size that is left after compaction, so it isn't done on every write
+    private static final float COMPACTED_SIZE = 0.75f;
+
+    // canonical path -> storage of all instances that use this file. Guarded by itself
+    private static final Map<String, Storage> STORAGES = new HashMap<String, Storage>();
+
+    private final File file;
+    private final long maxSize;
+    private final long maxLifetime;
+    private final CacheSerializer serializer;
+    private final CacheSerializer keySerializer = new SerializableSerializer();
+    private CacheKeyExtractor keyExtractor;
+
+    private volatile Storage storage;
+
+    /**
+     * @param file        cache file. Cache instances with the same file share its index
+     * @param maxSize     maximum size of the file in bytes
+     * @param maxLifetime time in milliseconds after which result is expired or {@link #NO_TIME_LIMIT}. Expired result is
+     *                    still sent to callbacks, but the method is called again
+     */
+    public DiskCache(final File file, final long maxSize, final long maxLifetime) {
+        this(file, maxSize, maxLifetime, new SerializableSerializer());
+    }
+
+    public DiskCache(final File file, final long maxSize, final long maxLifetime, final CacheSerializer serializer) {
+        if (0L >= maxSize) {
+            throw new IllegalArgumentException("maxSize should be positive");
+        }
+        if (0L > maxLifetime) {
+            throw new IllegalArgumentException("maxLifetime can't be negative");
+        }
+        this.file = file;
+        this.maxSize = maxSize;
+        this.maxLifetime = maxLifetime;
+        this.serializer = serializer;
+    }
+
+    @Override
+    public void setKeyExtractor(final CacheKeyExtractor keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public boolean loadFromCache(final Event event) throws IOException {
+        return 0L < loadWithLifetime(event);
+    }
+
+    @Override
+    public long loadWithLifetime(final Event event) throws IOException {
+        final CachedResult result = find(getCacheKey(event));
+        if (null == result) {
+            return NOT_FOUND;
+        }
+
+        event.sendResult(result.data);
+
+        return result.lifetime;
+    }
+
+    @Override
+    public void saveToCache(final Event event, final Object result) throws IOException {
+        save(getCacheKey(event), result, getLifetime());
+    }
+
+    /**
+     * Removes all results.
+     */
+    public void clear() throws IOException {
+        final Storage fileStorage = getStorage();
+        synchronized (fileStorage) {
+            fileStorage.open();
+            fileStorage.records.clear();
+            fileStorage.recordsSize = 0L;
+            fileStorage.file.setLength(0L);
+        }
+    }
+
+    /**
+     * @return key made by key extractor or {@link CacheKey} of the event
+     */
+    protected Object getCacheKey(final Event event) {
+        return null == keyExtractor ? CacheKey.create(event) : keyExtractor.getKey(event);
+    }
+
+    /**
+     * @return lifetime of new results
+     */
+    long getLifetime() {
+        return NO_TIME_LIMIT == maxLifetime ? CachedResult.UNLIMITED : maxLifetime;
+    }
+
+    /**
+     * @return cached result or null if there is no result for this key
+     */
+    CachedResult find(final Object key) throws IOException {
+        final ByteBuffer indexKey = ByteBuffer.wrap(toBytes(keySerializer, key));
+        final Storage fileStorage = getStorage();
+        final Record record;
+        final byte[] data;
+        synchronized (fileStorage) {
+            fileStorage.open();
+            record = fileStorage.records.get(indexKey);
+            if (null == record) {
+                return null;
+            }
+
+            data = new byte[record.resultLength];
+            fileStorage.file.seek(record.getResultOffset());
+            fileStorage.file.readFully(data);
+        }
+
+        final Object result;
+        try {
+            result = serializer.read(new ByteArrayInputStream(data));
+        } catch (final IOException ignored) {
+            // result was written by other version of the class or serializer
+            return null;
+        }
+        return new CachedResult(result, NEVER == record.expires ? CachedResult.UNLIMITED : record.expires - System.currentTimeMillis());
+    }
+
+    /**
+     * @param lifetime time in milliseconds while result is fresh or {@link CachedResult#UNLIMITED}
+     */
+    void save(final Object key, final Object result, final long lifetime) throws IOException {
+        final byte[] keyBytes = toBytes(keySerializer, key);
+        final byte[] resultBytes = toBytes(serializer, result);
+        // wall clock time is used, as results are kept after device reboot
+        final long expires = CachedResult.UNLIMITED == lifetime ? NEVER : System.currentTimeMillis() + lifetime;
+
+        final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(HEADER_SIZE + keyBytes.length + resultBytes.length);
+        final DataOutputStream out = new DataOutputStream(recordBytes);
+        out.writeInt(keyBytes.length);
+        out.writeInt(resultBytes.length);
+        out.writeLong(expires);
+        out.write(keyBytes);
+        out.write(resultBytes);
+
+        final Storage fileStorage = getStorage();
+        synchronized (fileStorage) {
+            fileStorage.open();
+            final long offset = fileStorage.file.length();
+            fileStorage.file.seek(offset);
+            // one write, so record is either written or cut off and ignored on next start
+            fileStorage.file.write(recordBytes.toByteArray());
+
+            final ByteBuffer indexKey = ByteBuffer.wrap(keyBytes);
+            fileStorage.removeRecord(indexKey);
+            final Record record = new Record(offset, keyBytes.length, resultBytes.length, expires);
+            fileStorage.records.put(indexKey, record);
+            fileStorage.recordsSize += record.getSize();
+
+            if (fileStorage.file.length() > maxSize) {
+                fileStorage.compact(maxSize);
+            }
+        }
+    }
+
+    private Storage getStorage() throws IOException {
+        Storage result = storage;
+        if (null == result) {
+            final String path = file.getCanonicalPath();
+            synchronized (STORAGES) {
+                result = STORAGES.get(path);
+                if (null == result) {
+                    result = new Storage(new File(path));
+                    STORAGES.put(path, result);
+                }
+            }
+            storage = result;
+        }
+        return result;
+    }
+
+    private static byte[] toBytes(final CacheSerializer serializer, final Object value) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.write(value, out);
+        return out.toByteArray();
+    }
+
+    private static void skipFully(final DataInputStream in, final int count) throws IOException {
+        int skipped = 0;
+        while (skipped < count) {
+            final int read = in.skipBytes(count - skipped);
+            if (0 >= read) {
+                throw new EOFException();
+            }
+            skipped += read;
+        }
+    }
+
+    /**
+     * Index and file handle of one cache file, shared by all cache instances that use it. Guarded by itself.
+     */
+    private static final class Storage {
+
+        final File path;
+        // key bytes -> record, in order records were written
+        final Map<ByteBuffer, Record> records = new LinkedHashMap<ByteBuffer, Record>();
+        RandomAccessFile file;
+        // size of records in the index
+        long recordsSize;
+
+        Storage(final File path) {
+            this.path = path;
+        }
+
+        void open() throws IOException {
+            if (null != file) {
+                return;
+            }
+
+            final File directory = path.getParentFile();
+            if (null != directory && !directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Cannot create cache directory " + directory);
+            }
+            file = new RandomAccessFile(path, "rw");
+
+            final long length = file.length();
+            long offset = 0L;
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)));
+            try {
+                while (offset + HEADER_SIZE <= length) {
+                    final int keyLength = in.readInt();
+                    final int resultLength = in.readInt();
+                    final long expires = in.readLong();
+                    if (0 > keyLength || 0 > resultLength || offset + HEADER_SIZE + keyLength + resultLength > length) {
+                        break;
+                    }
+                    final byte[] keyBytes = new byte[keyLength];
+                    in.readFully(keyBytes);
+                    skipFully(in, resultLength);
+
+                    final ByteBuffer indexKey = ByteBuffer.wrap(keyBytes);
+                    removeRecord(indexKey);
+                    final Record record = new Record(offset, keyLength, resultLength, expires);
+                    records.put(indexKey, record);
+                    recordsSize += record.getSize();
+                    offset += record.getSize();
+                }
+            } finally {
+                in.close();
+            }
+
+            if (offset < length) {
+                // last record was not written completely
+                file.setLength(offset);
+            }
+        }
+
+        /**
+         * Removes replaced and expired results and the oldest results till file size is less than {@link #COMPACTED_SIZE}
+         * part of its maximum size.
+         */
+        void compact(final long maxSize) throws IOException {
+            final long now = System.currentTimeMillis();
+            final long compactedSize = (long) (maxSize * COMPACTED_SIZE);
+            for (final Iterator<Record> iterator = records.values().iterator(); iterator.hasNext(); ) {
+                final Record record = iterator.next();
+                if (NEVER != record.expires && record.expires <= now || recordsSize > compactedSize) {
+                    iterator.remove();
+                    recordsSize -= record.getSize();
+                }
+            }
+
+            final File compactedFile = new File(path.getPath() + ".tmp");
+            final RandomAccessFile compacted = new RandomAccessFile(compactedFile, "rw");
+            try {
+                compacted.setLength(0L);
+                long offset = 0L;
+                byte[] buffer = new byte[0];
+                for (final Record record : records.values()) {
+                    final int size = (int) record.getSize();
+                    if (buffer.length < size) {
+                        buffer = new byte[size];
+                    }
+                    file.seek(record.offset);
+                    file.readFully(buffer, 0, size);
+                    compacted.write(buffer, 0, size);
+                    record.offset = offset;
+                    offset += size;
+                }
+            } finally {
+                compacted.close();
+            }
+
+            file.close();
+            file = null;
+            if (!compactedFile.renameTo(path)) {
+                // index doesn't match the file anymore, so it is read again
+                records.clear();
+                recordsSize = 0L;
+                throw new IOException("Cannot replace cache file " + path);
+            }
+            file = new RandomAccessFile(path, "rw");
+        }
+
+        void removeRecord(final ByteBuffer indexKey) {
+            final Record record = records.remove(indexKey);
+            if (null != record) {
+                recordsSize -= record.getSize();
+            }
+        }
+    }
+
+    private static final class Record {
+
+        long offset;
+        final int keyLength;
+        final int resultLength;
+        final long expires;
+
+        Record(final long offset, final int keyLength, final int resultLength, final long expires) {
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.resultLength = resultLength;
+            this.expires = expires;
+        }
+
+        long getResultOffset() {
+            return offset + HEADER_SIZE + keyLength;
+        }
+
+        long getSize() {
+            return HEADER_SIZE + keyLength + resultLength;
+        }
+    }
+}
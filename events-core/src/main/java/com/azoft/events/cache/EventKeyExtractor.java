@@ -0,0 +1,14 @@
+package com.azoft.events.cache;
+
+import com.azoft.events.Event;
+
+/**
+ * Default key extractor. Key is made of event id and all data items, see {@link CacheKey}.
+ */
+public final class EventKeyExtractor implements CacheKeyExtractor {
+
+    @Override
+    public Object getKey(final Event event) {
+        return CacheKey.create(event);
+    }
+}
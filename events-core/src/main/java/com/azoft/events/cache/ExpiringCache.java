@@ -0,0 +1,20 @@
+package com.azoft.events.cache;
+
+import com.azoft.events.Event;
+
+/**
+ * Cache provider that knows when cached results expire. It is needed for {@link com.azoft.events.Events.Cache#refreshAhead()}.
+ */
+public interface ExpiringCache extends CacheProvider {
+
+    long NOT_FOUND = Long.MIN_VALUE;
+    long UNLIMITED = Long.MAX_VALUE;
+
+    /**
+     * Sends cached result like {@link #loadFromCache(Event)} does.
+     *
+     * @return time in milliseconds left till sent result expires, not positive value if it is expired, {@link #UNLIMITED}
+     * if it never expires or {@link #NOT_FOUND} if there is no result
+     */
+    long loadWithLifetime(Event event) throws Exception;
+}
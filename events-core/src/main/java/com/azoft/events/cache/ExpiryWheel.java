@@ -0,0 +1,84 @@
+package com.azoft.events.cache;
+
+/**
+ * Hashed timer wheel for cache entries expiry. Entries are put to the bucket of their expiration tick, so advancing the
+ * wheel only looks at buckets of passed ticks instead of all entries. Entries that expire after more than one wheel turn
+ * stay in their bucket until their turn.
+ * <p/>
+ * This class is not thread safe, it is guarded by the lock of its cache segment.
+ */
+final class ExpiryWheel {
+
+    private static final int BUCKETS = 64;
+    private static final int MASK = BUCKETS - 1;
+
+    private final long tickMillis;
+    // bucket sentinels of circular doubly linked lists
+    private final Node[] buckets = new Node[BUCKETS];
+    private long currentTick;
+
+    /**
+     * @param lifetime expected lifetime of entries in milliseconds, the wheel is turned once per lifetime
+     */
+    ExpiryWheel(final long lifetime, final long now) {
+        tickMillis = Math.max(1L, lifetime / BUCKETS);
+        currentTick = now / tickMillis;
+        for (int i = 0; i < BUCKETS; i++) {
+            final Node sentinel = new Node();
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            buckets[i] = sentinel;
+        }
+    }
+
+    void schedule(final Node node) {
+        final Node sentinel = buckets[(int) (node.expires / tickMillis) & MASK];
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    void unschedule(final Node node) {
+        if (null != node.next) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    /**
+     * Moves the wheel to the current time and removes all expired entries from it.
+     *
+     * @return expired entries linked with {@link Node#next}, or null
+     */
+    Node advance(final long now) {
+        final long nowTick = now / tickMillis;
+        // after a long pause every bucket is looked at once
+        final long fromTick = Math.max(currentTick, nowTick - MASK);
+        Node expired = null;
+        for (long tick = fromTick; tick <= nowTick; tick++) {
+            final Node sentinel = buckets[(int) tick & MASK];
+            Node node = sentinel.next;
+            while (node != sentinel) {
+                final Node next = node.next;
+                if (node.expires <= now) {
+                    unschedule(node);
+                    node.next = expired;
+                    expired = node;
+                }
+                node = next;
+            }
+        }
+        currentTick = nowTick;
+        return expired;
+    }
+
+    static class Node {
+
+        long expires;
+        Node prev;
+        Node next;
+    }
+}
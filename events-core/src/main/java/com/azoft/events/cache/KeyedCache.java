@@ -0,0 +1,13 @@
+package com.azoft.events.cache;
+
+/**
+ * Cache provider that supports custom keys. Providers that don't implement it can only be used with default
+ * {@link EventKeyExtractor}.
+ */
+public interface KeyedCache extends CacheProvider {
+
+    /**
+     * Called once, right after provider is created, if {@link com.azoft.events.Events.Cache#key()} is set.
+     */
+    void setKeyExtractor(CacheKeyExtractor keyExtractor);
+}
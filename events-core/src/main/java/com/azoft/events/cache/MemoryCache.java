@@ -0,0 +1,129 @@
+package com.azoft.events.cache;
+
+import com.azoft.events.Event;
+import com.azoft.events.platform.Clock;
+import com.azoft.events.platform.EventsPlatform;
+import com.azoft.events.platform.MainThreadScheduler;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class MemoryCache implements KeyedCache, ExpiringCache {
+
+    public static final long NO_TIME_LIMIT = 0L;
+    private static final Map<Object, CacheEntry> CACHE = new HashMap<Object, CacheEntry>();
+    private static final Clock CLOCK = EventsPlatform.get().getClock();
+    private static final MainThreadScheduler HANDLER = EventsPlatform.get().createMainThreadScheduler(new MainThreadScheduler.MessageHandler() {
+        @Override
+        public void handleMessage(int what, Object obj) {
+            synchronized (CACHE) {
+                long currentTime = CLOCK.uptimeMillis();
+                for (Iterator<Map.Entry<Object, CacheEntry>> iterator = CACHE.entrySet().iterator(); iterator.hasNext(); ) {
+                    CacheEntry entry = iterator.next().getValue();
+                    if (entry.isClearExpired && entry.expires < currentTime) iterator.remove();
+                }
+            }
+        }
+    });
+
+    private final long maxLifetime;
+    private final boolean isClearExpired;
+    private CacheKeyExtractor keyExtractor;
+    // subclasses written before key extractors make their keys with toCacheKey
+    private final boolean isToCacheKeyOverridden = isToCacheKeyOverridden(getClass());
+
+    public MemoryCache() {
+        this(NO_TIME_LIMIT, false);
+    }
+
+    public MemoryCache(long maxLifetime, boolean isClearExpired) {
+        this.maxLifetime = maxLifetime;
+        this.isClearExpired = isClearExpired;
+    }
+
+    @Override
+    public void setKeyExtractor(CacheKeyExtractor keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public boolean loadFromCache(Event event) {
+        return loadWithLifetime(event) > 0;
+    }
+
+    @Override
+    public long loadWithLifetime(Event event) {
+        Object key = getCacheKey(event);
+        synchronized (CACHE) {
+            CacheEntry entry = CACHE.get(key);
+            if (entry == null) return NOT_FOUND;
+
+            event.sendResult(entry.data);
+
+            return maxLifetime == NO_TIME_LIMIT ? UNLIMITED : entry.expires - CLOCK.uptimeMillis();
+        }
+    }
+
+    @Override
+    public void saveToCache(Event event, Object result) {
+        Object key = getCacheKey(event);
+        synchronized (CACHE) {
+            long expires = CLOCK.uptimeMillis() + maxLifetime;
+            CACHE.put(key, new CacheEntry(result, expires, isClearExpired));
+            if (isClearExpired) HANDLER.sendMessage(0, null, maxLifetime + 10);
+        }
+    }
+
+    /**
+     * @return key made by key extractor or {@link CacheKey} of the event. Cache is shared by all events, so key should
+     * include event id
+     */
+    protected Object getCacheKey(Event event) {
+        if (keyExtractor != null) return keyExtractor.getKey(event);
+        return isToCacheKeyOverridden ? toCacheKey(event) : CacheKey.create(event);
+    }
+
+    /**
+     * Is used instead of {@link CacheKey} only if subclass overrides it.
+     *
+     * @deprecated override {@link #getCacheKey(Event)} or use {@link com.azoft.events.Events.Cache#key()}
+     */
+    @Deprecated
+    protected String toCacheKey(Event event) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(event.getId());
+
+        int count = event.getDataCount();
+        for (int i = 0; i < count; i++) {
+            builder.append('_').append(event.getData(i));
+        }
+
+        return builder.toString();
+    }
+
+    private static boolean isToCacheKeyOverridden(Class<?> clazz) {
+        for (Class<?> c = clazz; c != MemoryCache.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("toCacheKey", Event.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                // checking superclass
+            }
+        }
+        return false;
+    }
+
+    private static class CacheEntry {
+        final Object data;
+        final long expires;
+        final boolean isClearExpired;
+
+        private CacheEntry(Object data, long expires, boolean isClearExpired) {
+            this.data = data;
+            this.expires = expires;
+            this.isClearExpired = isClearExpired;
+        }
+    }
+
+}
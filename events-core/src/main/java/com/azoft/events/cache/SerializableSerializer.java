@@ -0,0 +1,29 @@
+package com.azoft.events.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Default {@link CacheSerializer}. Results and their fields should implement {@link java.io.Serializable}.
+ */
+public final class SerializableSerializer implements CacheSerializer {
+
+    @Override
+    public void write(final Object result, final OutputStream out) throws IOException {
+        final ObjectOutputStream objectOut = new ObjectOutputStream(out);
+        objectOut.writeObject(result);
+        objectOut.flush();
+    }
+
+    @Override
+    public Object read(final InputStream in) throws IOException {
+        try {
+            return new ObjectInputStream(in).readObject();
+        } catch (final ClassNotFoundException e) {
+            throw new IOException("Cached result class was not found: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.azoft.events.cache;
+
+import com.azoft.events.Event;
+
+/**
+ * Memory cache in front of disk cache. Results are saved to both levels. Memory is checked first, and results found on
+ * disk are put to memory, so warm start skips the method and later calls don't use disk.
+ * <p/>
+ * Both levels use keys of this cache, so their own key extractors are not used.
+ * <pre>
+ * public class UsersCache extends TwoLevelCache {
+ *     public UsersCache() {
+ *         super(new BoundedMemoryCache(100, 60000L, true),
+ *                 new DiskCache(new File(App.getInstance().getCacheDir(), "users"), 1024 * 1024, 24 * 60 * 60 * 1000L));
+ *     }
+ * }
+ * </pre>
+ */
+public class TwoLevelCache implements KeyedCache, ExpiringCache, AsyncCacheProvider {
+
+    private final BoundedMemoryCache memoryCache;
+    private final DiskCache diskCache;
+    private CacheKeyExtractor keyExtractor;
+
+    public TwoLevelCache(final BoundedMemoryCache memoryCache, final DiskCache diskCache) {
+        this.memoryCache = memoryCache;
+        this.diskCache = diskCache;
+    }
+
+    @Override
+    public void setKeyExtractor(final CacheKeyExtractor keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public boolean loadFromCache(final Event event) throws Exception {
+        return 0L < loadWithLifetime(event);
+    }
+
+    @Override
+    public long loadWithLifetime(final Event event) throws Exception {
+        final Object key = getCacheKey(event);
+        CachedResult result = memoryCache.find(key);
+        if (null == result || !result.isFresh()) {
+            final CachedResult diskResult = diskCache.find(key);
+            if (null != diskResult) {
+                if (diskResult.isFresh()) {
+                    memoryCache.save(key, diskResult.data, diskResult.lifetime);
+                }
+                result = diskResult;
+            }
+        }
+        if (null == result) {
+            return NOT_FOUND;
+        }
+
+        event.sendResult(result.data);
+
+        return result.lifetime;
+    }
+
+    @Override
+    public void saveToCache(final Event event, final Object result) throws Exception {
+        final Object key = getCacheKey(event);
+        memoryCache.save(key, result, CachedResult.UNLIMITED);
+        diskCache.save(key, result, diskCache.getLifetime());
+    }
+
+    /**
+     * @return key made by key extractor or {@link CacheKey} of the event
+     */
+    protected Object getCacheKey(final Event event) {
+        return null == keyExtractor ? CacheKey.create(event) : keyExtractor.getKey(event);
+    }
+}
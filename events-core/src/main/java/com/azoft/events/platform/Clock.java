@@ -0,0 +1,22 @@
+package com.azoft.events.platform;
+
+/**
+ * Time source for cache lifetimes and delayed messages.
+ */
+public interface Clock {
+
+    /**
+     * System.nanoTime() in milliseconds.
+     */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long uptimeMillis() {
+            return System.nanoTime() / 1000000L;
+        }
+    };
+
+    /**
+     * @return milliseconds since some fixed moment. Time never goes back, but it can stop while device sleeps
+     */
+    long uptimeMillis();
+}
@@ -0,0 +1,213 @@
+package com.azoft.events.platform;
+
+import java.util.PriorityQueue;
+
+/**
+ * Main thread for plain JVM, see {@link JvmPlatform}. Messages of all schedulers are kept in one queue ordered by time,
+ * messages with the same time are handled in order they were sent.
+ * <p/>
+ * Thread that calls {@link #loop()} or {@link #runPending()} is main thread. Use {@link #startThread(String)} to handle
+ * messages in a separate thread, or call {@link #runPending()} from test or benchmark thread to handle them there, without
+ * switching threads.
+ */
+public final class EventLoop {
+
+    private final Clock clock;
+
+    // Guarded by itself
+    private final PriorityQueue<Message> messages = new PriorityQueue<Message>();
+    private long nextSequence;
+    private boolean isQuit;
+
+    private volatile Thread thread;
+
+    public EventLoop() {
+        this(Clock.SYSTEM);
+    }
+
+    /**
+     * @param clock clock of message delays. Test clock lets tests handle delayed messages without waiting
+     */
+    public EventLoop(final Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Starts daemon thread that handles messages till {@link #quit()} is called.
+     */
+    public static EventLoop startThread(final String name) {
+        final EventLoop eventLoop = new EventLoop();
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                eventLoop.loop();
+            }
+        }, name);
+        thread.setDaemon(true);
+        // main thread is known before the first message is sent
+        eventLoop.thread = thread;
+        thread.start();
+        return eventLoop;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Handles messages in current thread till {@link #quit()} is called.
+     */
+    public void loop() {
+        thread = Thread.currentThread();
+        for (; ; ) {
+            final Message message;
+            synchronized (messages) {
+                message = take();
+            }
+            if (null == message) {
+                return;
+            }
+            message.handler.handleMessage(message.what, message.obj);
+        }
+    }
+
+    /**
+     * Stops {@link #loop()}. Messages that are not handled yet are dropped.
+     */
+    public void quit() {
+        synchronized (messages) {
+            isQuit = true;
+            messages.clear();
+            messages.notifyAll();
+        }
+    }
+
+    /**
+     * Handles all messages which time has come in current thread, including messages sent while they are handled.
+     *
+     * @return number of handled messages
+     */
+    public int runPending() {
+        thread = Thread.currentThread();
+        int count = 0;
+        for (; ; ) {
+            final Message message;
+            synchronized (messages) {
+                message = messages.peek();
+                if (null == message || message.when > clock.uptimeMillis()) {
+                    return count;
+                }
+                messages.poll();
+            }
+            message.handler.handleMessage(message.what, message.obj);
+            ++count;
+        }
+    }
+
+    MainThreadScheduler createScheduler(final MainThreadScheduler.MessageHandler handler) {
+        return new Scheduler(handler);
+    }
+
+    /**
+     * Waits for the next message which time has come. Should be called with messages lock held.
+     *
+     * @return message or null if loop is quit
+     */
+    private Message take() {
+        for (; ; ) {
+            if (isQuit) {
+                return null;
+            }
+            final Message message = messages.peek();
+            if (null == message) {
+                waitForMessages(0L);
+            } else {
+                final long delay = message.when - clock.uptimeMillis();
+                if (0L >= delay) {
+                    return messages.poll();
+                }
+                waitForMessages(delay);
+            }
+        }
+    }
+
+    private void waitForMessages(final long timeout) {
+        try {
+            messages.wait(timeout);
+        } catch (final InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+            isQuit = true;
+        }
+    }
+
+    private static final class Message implements Comparable<Message> {
+
+        final MainThreadScheduler.MessageHandler handler;
+        final int what;
+        final Object obj;
+        final long when;
+        // messages with the same time are handled in order they were sent
+        final long sequence;
+
+        Message(final MainThreadScheduler.MessageHandler handler, final int what, final Object obj, final long when,
+                final long sequence) {
+            this.handler = handler;
+            this.what = what;
+            this.obj = obj;
+            this.when = when;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(final Message other) {
+            if (when != other.when) {
+                return when < other.when ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+        }
+    }
+
+    private final class Scheduler implements MainThreadScheduler {
+
+        private final MessageHandler handler;
+
+        Scheduler(final MessageHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean isMainThread() {
+            return Thread.currentThread() == thread;
+        }
+
+        @Override
+        public void sendMessage(final int what, final Object obj, final long delayMillis) {
+            final long when = clock.uptimeMillis() + delayMillis;
+            synchronized (messages) {
+                if (isQuit) {
+                    return;
+                }
+                messages.add(new Message(handler, what, obj, when, nextSequence++));
+                messages.notifyAll();
+            }
+        }
+
+        @Override
+        public boolean hasMessages(final int what) {
+            synchronized (messages) {
+                for (final Message message : messages) {
+                    if (handler == message.handler && what == message.what) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean postFrameCallback(final FrameCallback callback) {
+            // there are no frames
+            return false;
+        }
+    }
+}
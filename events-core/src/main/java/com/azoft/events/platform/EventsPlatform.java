@@ -0,0 +1,99 @@
+package com.azoft.events.platform;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Services of the platform events work on: main thread, clock and log. Android platform from events library is used by
+ * default if it is in the class path, otherwise {@link JvmPlatform} with its own main thread is used. Other platform can be
+ * set with {@link com.azoft.events.Events#setPlatform(EventsPlatform)} before events are used.
+ */
+public abstract class EventsPlatform {
+
+    private static final String ANDROID_PLATFORM = "com.azoft.events.platform.AndroidPlatform";
+
+    private static volatile EventsPlatform sPlatform;
+
+    private final AtomicInteger nextGeneratedId = new AtomicInteger(1);
+
+    /**
+     * Sets platform of another type. Should be called once, before any event is posted or receiver is registered.
+     *
+     * @throws IllegalStateException if platform was already used
+     */
+    public static synchronized void set(final EventsPlatform platform) {
+        if (null == platform) {
+            throw new IllegalArgumentException("platform can't be null");
+        }
+        if (null != sPlatform) {
+            throw new IllegalStateException("Platform is already used: " + sPlatform.getClass().getSimpleName());
+        }
+        sPlatform = platform;
+    }
+
+    /**
+     * @return current platform. Default platform is created on first call
+     */
+    public static EventsPlatform get() {
+        final EventsPlatform platform = sPlatform;
+        return null == platform ? init() : platform;
+    }
+
+    private static synchronized EventsPlatform init() {
+        if (null == sPlatform) {
+            sPlatform = createDefault();
+        }
+        return sPlatform;
+    }
+
+    private static EventsPlatform createDefault() {
+        final Class<?> androidPlatformClass;
+        try {
+            androidPlatformClass = Class.forName(ANDROID_PLATFORM);
+        } catch (final ClassNotFoundException ignored) {
+            // Not Android. Messages are handled in events own main thread
+            return new JvmPlatform(EventLoop.startThread("events-main"));
+        }
+
+        try {
+            return (EventsPlatform) androidPlatformClass.newInstance();
+        } catch (final InstantiationException e) {
+            throw new RuntimeException("Cannot instantiate platform: " + androidPlatformClass.getSimpleName(), e);
+        } catch (final IllegalAccessException e) {
+            throw new RuntimeException("Cannot instantiate platform: " + androidPlatformClass.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Creates scheduler that sends messages to the handler. Every scheduler has its own messages, but all of them are
+     * handled in the same main thread.
+     */
+    public abstract MainThreadScheduler createMainThreadScheduler(MainThreadScheduler.MessageHandler handler);
+
+    public abstract Clock getClock();
+
+    public abstract Logger getLogger();
+
+    /**
+     * @return readable name of event id for log, id itself by default
+     */
+    public String getIdName(final int id) {
+        return String.valueOf(id);
+    }
+
+    /**
+     * Generates id for string event key. Generated ids shouldn't be equal to ids of events posted by int ids.
+     */
+    public int generateId() {
+        for (; ; ) {
+            final int result = nextGeneratedId.get();
+            // Android resource ids have the high byte nonzero; clamp to the range under that.
+            int newValue = result + 1;
+            if (newValue > 0x00FFFFFF) {
+                newValue = 1; // Roll over to 1, not 0.
+            }
+            if (nextGeneratedId.compareAndSet(result, newValue)) {
+                return result;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.azoft.events.platform;
+
+/**
+ * Platform for plain JVM: server side code, tests and benchmarks. Main thread is thread of the {@link EventLoop}.
+ * <pre>
+ * final EventLoop mainLoop = new EventLoop();
+ * Events.setPlatform(new JvmPlatform(mainLoop));
+ * ...
+ * Events.post(EVENT_ID);
+ * mainLoop.runPending();
+ * </pre>
+ */
+public class JvmPlatform extends EventsPlatform {
+
+    private final EventLoop mainLoop;
+    private final Logger logger;
+
+    /**
+     * Log is written to System.out and System.err.
+     */
+    public JvmPlatform(final EventLoop mainLoop) {
+        this(mainLoop, new ConsoleLogger());
+    }
+
+    public JvmPlatform(final EventLoop mainLoop, final Logger logger) {
+        this.mainLoop = mainLoop;
+        this.logger = logger;
+    }
+
+    public EventLoop getMainLoop() {
+        return mainLoop;
+    }
+
+    @Override
+    public MainThreadScheduler createMainThreadScheduler(final MainThreadScheduler.MessageHandler handler) {
+        return mainLoop.createScheduler(handler);
+    }
+
+    @Override
+    public Clock getClock() {
+        return mainLoop.getClock();
+    }
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    private static final class ConsoleLogger implements Logger {
+
+        @Override
+        public void d(final String tag, final String message) {
+            System.out.println(tag + ": " + message);
+        }
+
+        @Override
+        public void e(final String tag, final String message, final Throwable error) {
+            System.err.println(tag + ": " + message);
+            if (null != error) {
+                error.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.azoft.events.platform;
+
+/**
+ * Writes events log. Debug messages are written only if {@link com.azoft.events.Events#setDebug(boolean)} is on.
+ */
+public interface Logger {
+
+    void d(String tag, String message);
+
+    /**
+     * @param error error or null
+     */
+    void e(String tag, String message, Throwable error);
+}
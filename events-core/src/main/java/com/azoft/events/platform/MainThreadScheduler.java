@@ -0,0 +1,49 @@
+package com.azoft.events.platform;
+
+/**
+ * Message queue of the main thread. Events are delivered and callbacks are sent in main thread, so dispatcher sends its
+ * work there with messages. Messages are handled one by one by {@link MessageHandler} of the scheduler, in order of their
+ * time.
+ * <p/>
+ * All methods except {@link #postFrameCallback(FrameCallback)} can be called from any thread.
+ */
+public interface MainThreadScheduler {
+
+    /**
+     * @return true if current thread is main thread
+     */
+    boolean isMainThread();
+
+    /**
+     * Sends message to {@link MessageHandler} of this scheduler.
+     *
+     * @param delayMillis time in milliseconds after which message is handled, 0 to handle it after messages that are already
+     *                    waiting
+     */
+    void sendMessage(int what, Object obj, long delayMillis);
+
+    /**
+     * @return true if there are messages with this code sent by this scheduler that are not handled yet
+     */
+    boolean hasMessages(int what);
+
+    /**
+     * Asks to call callback in main thread when the next frame is drawn. Should be called from main thread.
+     *
+     * @return false if platform doesn't draw frames, callback is never called then
+     */
+    boolean postFrameCallback(FrameCallback callback);
+
+    interface MessageHandler {
+
+        void handleMessage(int what, Object obj);
+    }
+
+    interface FrameCallback {
+
+        /**
+         * @param frameTimeNanos time when frame was started in System.nanoTime() time base
+         */
+        void doFrame(long frameTimeNanos);
+    }
+}
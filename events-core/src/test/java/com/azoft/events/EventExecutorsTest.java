@@ -0,0 +1,119 @@
+package com.azoft.events;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventExecutorsTest {
+
+    private static final String EVENT_KEY = "event_executors_test";
+    private static final String EXECUTOR = "event_executors_test_rejecting";
+    private static final int POSTS = 3;
+    private static final long TIMEOUT_MILLIS = 5000L;
+
+    private final LaneReceiver receiver = new LaneReceiver();
+
+    @Before
+    public void setUp() {
+        TestMainThread.drain();
+        Events.registerExecutor(EXECUTOR, new RejectingExecutor(2));
+        Events.register(receiver);
+        TestMainThread.drain();
+    }
+
+    @After
+    public void tearDown() {
+        Events.unregister(receiver);
+        TestMainThread.drain();
+    }
+
+    @Test
+    public void rejectedLaneTaskIsFailedAndLaneIsDrained() throws InterruptedException {
+        final List<Event> events = new ArrayList<Event>();
+        for (int i = 0; i < POSTS; ++i) {
+            events.add(Events.create(EVENT_KEY).data(i).post());
+        }
+
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (receiver.getFinished() < POSTS && System.currentTimeMillis() < deadline) {
+            TestMainThread.drain();
+            Thread.sleep(10L);
+        }
+
+        // second task is usually rejected in executor thread, when the first one is finished
+        assertEquals(Arrays.asList(EventCallback.Status.STARTED, EventCallback.Status.RESULT, EventCallback.Status.FINISHED),
+                receiver.getStatuses(events.get(0)));
+        assertEquals(Arrays.asList(EventCallback.Status.STARTED, EventCallback.Status.ERROR, EventCallback.Status.FINISHED),
+                receiver.getStatuses(events.get(1)));
+        assertEquals(Arrays.asList(EventCallback.Status.STARTED, EventCallback.Status.RESULT, EventCallback.Status.FINISHED),
+                receiver.getStatuses(events.get(2)));
+    }
+
+    public static class LaneReceiver {
+
+        private final List<Event> events = new ArrayList<Event>();
+        private final List<EventCallback.Status> statuses = new ArrayList<EventCallback.Status>();
+
+        @Events.AsyncMethod(key = EVENT_KEY, executor = EXECUTOR, serialLane = EVENT_KEY)
+        public Object onEvent(final Event event) {
+            return event.getData(0);
+        }
+
+        @Events.Callback(key = EVENT_KEY)
+        public void onCallback(final EventCallback callback) {
+            events.add(callback.getEvent());
+            statuses.add(callback.getStatus());
+        }
+
+        int getFinished() {
+            int count = 0;
+            for (final EventCallback.Status status : statuses) {
+                if (EventCallback.Status.FINISHED == status) {
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        List<EventCallback.Status> getStatuses(final Event event) {
+            final List<EventCallback.Status> result = new ArrayList<EventCallback.Status>();
+            for (int i = 0; i < events.size(); ++i) {
+                //noinspection ObjectEquality
+                if (event == events.get(i)) {
+                    result.add(statuses.get(i));
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Rejects one task, runs others in new threads.
+     */
+    private static final class RejectingExecutor implements Executor {
+
+        private final int rejectedTask;
+        private final AtomicInteger count = new AtomicInteger();
+
+        RejectingExecutor(final int rejectedTask) {
+            this.rejectedTask = rejectedTask;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            if (rejectedTask == count.incrementAndGet()) {
+                throw new RejectedExecutionException("task " + rejectedTask + " is rejected");
+            }
+            new Thread(command).start();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.azoft.events;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventsQueueTest {
+
+    private static final String EVENT_KEY = "events_queue_test";
+    private static final String METHOD_KEY = "events_queue_test_method";
+    private static final int POSTS = 10000;
+    private static final int MAX_RECEIVER_SIZE = 10;
+
+    private final PausedReceiver receiver = new PausedReceiver();
+
+    @Before
+    public void setUp() {
+        TestMainThread.drain();
+        EventsDispatcher.register(receiver, false, "events_queue_test_receiver", false);
+        TestMainThread.drain();
+    }
+
+    @After
+    public void tearDown() {
+        Events.setQueuePolicy(QueuePolicy.UNBOUNDED);
+        Events.unregister(receiver);
+        TestMainThread.drain();
+    }
+
+    @Test
+    public void droppedParkedEventsAreRemoved() {
+        Events.setQueuePolicy(new QueuePolicy(QueuePolicy.UNLIMITED, MAX_RECEIVER_SIZE, QueuePolicy.Overflow.DROP_OLDEST));
+        postToPaused();
+
+        assertEquals(MAX_RECEIVER_SIZE, Events.getQueueSize(receiver));
+        assertEquals(MAX_RECEIVER_SIZE, EventsDispatcher.getParkedSize(receiver));
+        assertEquals(MAX_RECEIVER_SIZE, EventsDispatcher.getParkedSize());
+    }
+
+    @Test
+    public void coalescedParkedEventsAreRemoved() {
+        Events.setQueuePolicy(new QueuePolicy(QueuePolicy.UNLIMITED, MAX_RECEIVER_SIZE, QueuePolicy.Overflow.COALESCE));
+        postToPaused();
+
+        assertEquals(MAX_RECEIVER_SIZE, Events.getQueueSize(receiver));
+        assertEquals(MAX_RECEIVER_SIZE, EventsDispatcher.getParkedSize(receiver));
+    }
+
+    @Test
+    public void canceledParkedEventsAreRemoved() {
+        final List<Event> events = new ArrayList<Event>();
+        for (int i = 0; i < POSTS; ++i) {
+            events.add(Events.post(METHOD_KEY));
+            if (0 == i % MAX_RECEIVER_SIZE) {
+                TestMainThread.drain();
+            }
+        }
+        TestMainThread.drain();
+        assertEquals(POSTS, EventsDispatcher.getParkedSize(receiver));
+
+        for (final Event event : events) {
+            event.cancel();
+        }
+        TestMainThread.drain();
+
+        assertEquals(0, Events.getQueueSize(receiver));
+        assertEquals(0, EventsDispatcher.getParkedSize(receiver));
+        assertEquals(0, EventsDispatcher.getParkedSize());
+    }
+
+    @Test
+    public void parkedEventsAreDeliveredOnResume() {
+        Events.setQueuePolicy(new QueuePolicy(QueuePolicy.UNLIMITED, MAX_RECEIVER_SIZE, QueuePolicy.Overflow.DROP_OLDEST));
+        postToPaused();
+
+        EventsDispatcher.resume(receiver);
+        TestMainThread.drain();
+
+        assertEquals(MAX_RECEIVER_SIZE, receiver.received);
+        assertEquals(0, Events.getQueueSize(receiver));
+        assertEquals(0, EventsDispatcher.getParkedSize(receiver));
+    }
+
+    /**
+     * Every post is dispatched before the next one, so each of them is parked and then dropped.
+     */
+    private static void postToPaused() {
+        for (int i = 0; i < POSTS; ++i) {
+            Events.post(EVENT_KEY);
+            TestMainThread.drain();
+        }
+    }
+
+    public static class PausedReceiver {
+
+        int received;
+
+        @Events.Receiver(keys = EVENT_KEY)
+        public void onEvent(final Event event) {
+            ++received;
+        }
+
+        @Events.UiMethod(key = METHOD_KEY)
+        public void onMethod(final Event event) {
+        }
+    }
+}
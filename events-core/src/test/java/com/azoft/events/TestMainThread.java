@@ -0,0 +1,51 @@
+package com.azoft.events;
+
+import com.azoft.events.platform.Clock;
+import com.azoft.events.platform.EventLoop;
+import com.azoft.events.platform.JvmPlatform;
+import com.azoft.events.platform.Logger;
+
+/**
+ * Main thread of tests: event loop which messages are handled in test thread. Its clock is moved forward by
+ * {@link #drain()}, so delayed messages are handled without waiting.
+ */
+final class TestMainThread {
+
+    private static final TestClock CLOCK = new TestClock();
+    private static final EventLoop MAIN_LOOP = new EventLoop(CLOCK);
+
+    static {
+        Events.setPlatform(new JvmPlatform(MAIN_LOOP, new Logger() {
+            @Override
+            public void d(final String tag, final String message) {
+            }
+
+            @Override
+            public void e(final String tag, final String message, final Throwable error) {
+            }
+        }));
+        MAIN_LOOP.runPending();
+    }
+
+    private TestMainThread() {
+    }
+
+    /**
+     * Handles all messages sent to main thread, including delayed ones.
+     */
+    static void drain() {
+        do {
+            CLOCK.now += 1000L;
+        } while (0 < MAIN_LOOP.runPending());
+    }
+
+    private static final class TestClock implements Clock {
+
+        volatile long now;
+
+        @Override
+        public long uptimeMillis() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.azoft.events.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DiskCacheTest {
+
+    private static final long MAX_SIZE = 8 * 1024;
+    private static final int RESULTS = 30;
+
+    private File file;
+    private File copy;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("disk_cache_test", null);
+        copy = File.createTempFile("disk_cache_test_copy", null);
+    }
+
+    @After
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+        //noinspection ResultOfMethodCallIgnored
+        copy.delete();
+    }
+
+    @Test
+    public void instancesWithSameFileShareIndex() throws IOException {
+        final DiskCache first = new DiskCache(file, MAX_SIZE, DiskCache.NO_TIME_LIMIT);
+        final DiskCache second = new DiskCache(new File(file.getParentFile(), "./" + file.getName()), MAX_SIZE, DiskCache.NO_TIME_LIMIT);
+
+        // both instances read the file before it is changed
+        assertNull(first.find("first"));
+        assertNull(second.find("first"));
+        first.save("first", 1, CachedResult.UNLIMITED);
+
+        final CachedResult result = second.find("first");
+        assertNotNull(result);
+        assertEquals(1, result.data);
+    }
+
+    @Test
+    public void compactionKeepsResultsOfOtherInstance() throws IOException {
+        final DiskCache first = new DiskCache(file, MAX_SIZE, DiskCache.NO_TIME_LIMIT);
+        final DiskCache second = new DiskCache(file, MAX_SIZE, DiskCache.NO_TIME_LIMIT);
+        second.save("second", -1, CachedResult.UNLIMITED);
+
+        for (int i = 0; i < RESULTS; ++i) {
+            first.save("first" + i, i, CachedResult.UNLIMITED);
+        }
+        // replaced results make the file grow till it is compacted
+        long maxLength = 0L;
+        for (int i = 0; i < RESULTS * 10; ++i) {
+            second.save("second", i, CachedResult.UNLIMITED);
+            maxLength = Math.max(maxLength, file.length());
+        }
+        assertTrue("file was not compacted", maxLength <= MAX_SIZE && file.length() < MAX_SIZE);
+
+        // file is read by new instance as after process restart
+        copy(file, copy);
+        final DiskCache reopened = new DiskCache(copy, MAX_SIZE, DiskCache.NO_TIME_LIMIT);
+        for (int i = 0; i < RESULTS; ++i) {
+            final CachedResult result = reopened.find("first" + i);
+            assertNotNull(result);
+            assertEquals(i, result.data);
+        }
+        assertEquals(RESULTS * 10 - 1, reopened.find("second").data);
+    }
+
+    private static void copy(final File from, final File to) throws IOException {
+        final InputStream in = new FileInputStream(from);
+        try {
+            final OutputStream out = new FileOutputStream(to);
+            try {
+                final byte[] buffer = new byte[4096];
+                int read;
+                while (0 < (read = in.read(buffer))) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+# Generated event invokers are found by the receiver class name and looked up by the method name
+-keepclasseswithmembernames class * {
+    @com.azoft.events.Events$* <methods>;
+}
+-keep class **$$EventInvokers {
+    <init>();
+}
+
+# Android platform is found by the class name when platform is not set
+-keep class com.azoft.events.platform.AndroidPlatform {
+    <init>();
+}
@@ -1,38 +0,0 @@
-package com.azoft.events;
-
-import android.os.Build;
-import android.view.View;
-
-import java.util.concurrent.atomic.AtomicInteger;
-
-final class IdsGenerationUtil {
-
-    private static final AtomicInteger sNextGeneratedId = new AtomicInteger(1);
-
-    private IdsGenerationUtil() {
-    }
-
-    /**
-     * Generate a value suitable for use in {@link View#setId(int)}.
-     * This value will not collide with ID values generated at build time by aapt for R.id.
-     *
-     * @return a generated ID value
-     */
-    public static int generateViewId() {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
-            return View.generateViewId();
-        } else {
-            for (; ; ) {
-                final int result = sNextGeneratedId.get();
-                // aapt-generated IDs have the high byte nonzero; clamp to the range under that.
-                int newValue = result + 1;
-                if (newValue > 0x00FFFFFF) {
-                    newValue = 1; // Roll over to 1, not 0.
-                }
-                if (sNextGeneratedId.compareAndSet(result, newValue)) {
-                    return result;
-                }
-            }
-        }
-    }
-}
\ No newline at end of file
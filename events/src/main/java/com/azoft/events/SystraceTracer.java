@@ -0,0 +1,52 @@
+package com.azoft.events;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.util.Locale;
+
+/**
+ * Writes delivery stages as systrace sections, like "Events invoke user_loaded". Sections are written on API 18+ only.
+ * <pre>
+ * if (BuildConfig.DEBUG) {
+ *     Events.setTracer(new SystraceTracer());
+ * }
+ * </pre>
+ */
+public class SystraceTracer implements EventsTracer {
+
+    // section name length limit of systrace
+    private static final int MAX_NAME_LENGTH = 127;
+
+    private static final boolean IS_SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+
+    private static final String[] STAGE_NAMES = new String[Stage.values().length];
+
+    static {
+        for (final Stage stage : Stage.values()) {
+            STAGE_NAMES[stage.ordinal()] = "Events " + stage.name().toLowerCase(Locale.US);
+        }
+    }
+
+    @Override
+    public void begin(final Stage stage, final int eventId) {
+        if (IS_SUPPORTED) {
+            Trace.beginSection(getSectionName(stage, eventId));
+        }
+    }
+
+    @Override
+    public void end(final Stage stage, final int eventId) {
+        if (IS_SUPPORTED) {
+            Trace.endSection();
+        }
+    }
+
+    private static String getSectionName(final Stage stage, final int eventId) {
+        if (0 == eventId) {
+            return STAGE_NAMES[stage.ordinal()];
+        }
+        final String name = STAGE_NAMES[stage.ordinal()] + ' ' + Utils.getName(eventId);
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+    }
+}
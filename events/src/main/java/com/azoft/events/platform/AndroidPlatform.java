@@ -0,0 +1,152 @@
+package com.azoft.events.platform;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.View;
+
+/**
+ * Android platform: main thread is application main looper, frames are tracked with {@link Choreographer} on API 16+ and
+ * log is written with {@link Log}. It is used by default. Set application context to have events names in log:
+ * <pre>
+ * AndroidPlatform.setAppContext(this);
+ * </pre>
+ */
+public class AndroidPlatform extends EventsPlatform {
+
+    private static final Clock CLOCK = new Clock() {
+        @Override
+        public long uptimeMillis() {
+            return SystemClock.uptimeMillis();
+        }
+    };
+
+    private static final Logger LOGGER = new Logger() {
+        @Override
+        public void d(final String tag, final String message) {
+            Log.d(tag, message);
+        }
+
+        @Override
+        public void e(final String tag, final String message, final Throwable error) {
+            Log.e(tag, message, error);
+        }
+    };
+
+    // Context is shared by all instances, so it can be set after default platform is created
+    private static volatile Context sAppContext;
+
+    public AndroidPlatform() {
+    }
+
+    /**
+     * @param context context that is used to get events names by ids (if event id is Android id resource)
+     */
+    public AndroidPlatform(final Context context) {
+        setAppContext(context);
+    }
+
+    /**
+     * Sets context that is used to get events names by ids (if event id is Android id resource). Unlike
+     * {@link com.azoft.events.Events#setPlatform(EventsPlatform)} it can be called after events are used, for example
+     * in Application onCreate after static initialization already created default platform. Replaces removed
+     * Events.setAppContext(Context).
+     */
+    public static void setAppContext(final Context context) {
+        sAppContext = context.getApplicationContext();
+    }
+
+    @Override
+    public MainThreadScheduler createMainThreadScheduler(final MainThreadScheduler.MessageHandler handler) {
+        return new MainLooperScheduler(handler);
+    }
+
+    @Override
+    public Clock getClock() {
+        return CLOCK;
+    }
+
+    @Override
+    public Logger getLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public String getIdName(final int id) {
+        final Context appContext = sAppContext;
+        if (null != appContext) {
+            try {
+                return appContext.getResources().getResourceEntryName(id);
+            }
+            catch (final Resources.NotFoundException ignored) {
+                // Returning id itself (below)
+            }
+        }
+
+        return String.valueOf(id);
+    }
+
+    /**
+     * Generates a value suitable for use in {@link View#setId(int)}.
+     * This value will not collide with ID values generated at build time by aapt for R.id.
+     */
+    @Override
+    public int generateId() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return View.generateViewId();
+        }
+        return super.generateId();
+    }
+
+    private static final class MainLooperScheduler extends Handler implements MainThreadScheduler {
+
+        private final MessageHandler handler;
+        // Choreographer callback of the last posted callback, so it isn't created on every frame
+        private FrameCallback frameCallback;
+        private Choreographer.FrameCallback choreographerCallback;
+
+        MainLooperScheduler(final MessageHandler handler) {
+            super(Looper.getMainLooper());
+            this.handler = handler;
+        }
+
+        @Override
+        public void handleMessage(final Message msg) {
+            handler.handleMessage(msg.what, msg.obj);
+        }
+
+        @Override
+        public boolean isMainThread() {
+            return Looper.getMainLooper() == Looper.myLooper();
+        }
+
+        @Override
+        public void sendMessage(final int what, final Object obj, final long delayMillis) {
+            sendMessageDelayed(obtainMessage(what, obj), delayMillis);
+        }
+
+        @Override
+        public boolean postFrameCallback(final FrameCallback callback) {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+                return false;
+            }
+            if (frameCallback != callback) {
+                frameCallback = callback;
+                choreographerCallback = new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(final long frameTimeNanos) {
+                        callback.doFrame(frameTimeNanos);
+                    }
+                };
+            }
+            Choreographer.getInstance().postFrameCallback(choreographerCallback);
+            return true;
+        }
+    }
+}
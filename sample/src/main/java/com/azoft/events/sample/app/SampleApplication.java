@@ -3,6 +3,7 @@ package com.azoft.events.sample.app;
 import android.app.Application;
 
 import com.azoft.events.Events;
+import com.azoft.events.platform.AndroidPlatform;
 
 public final class SampleApplication extends Application {
 
@@ -10,7 +11,8 @@ public final class SampleApplication extends Application {
     public void onCreate() {
         super.onCreate();
 
-        Events.setAppContext(this);
+        AndroidPlatform.setAppContext(this);
+        Events.addIndex(new SampleEventsIndex());
         Events.register(new EventsHolder());
     }
 }